@@ -0,0 +1,72 @@
+// Walker's alias method: picks index i with probability weights[i] / sum
+// in O(1), whatever the number of weights. Building the table is O(n)
+// (Vose's version, which keeps rounding errors from piling up), so build
+// once when the weights are loaded and sample as often as needed.
+public final class AliasTable {
+
+    private final double[] prob;  // chance of keeping column i instead of its alias
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("no weights");
+
+        double sum = 0;
+        for (double w : weights) {
+            if (!(w >= 0) || Double.isInfinite(w)) {
+                throw new IllegalArgumentException("bad weight: " + w);
+            }
+            sum += w;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("weights add up to 0");
+
+        prob = new double[n];
+        alias = new int[n];
+
+        // scale so the average column is exactly 1, then pair every column
+        // below 1 with one above it
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1;
+            if (scaled[l] < 1) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+
+        // whatever is left is 1 up to rounding
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            prob[l] = 1;
+            alias[l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            prob[s] = 1;
+            alias[s] = s;
+        }
+    }
+
+    public int size() {
+        return prob.length;
+    }
+
+    // u is uniform in [0, 1), e.g. Random.nextDouble(); one draw is enough
+    public int sample(double u) {
+        double scaled = u * prob.length;
+        int i = (int) scaled;
+        if (i >= prob.length) i = prob.length - 1;
+        return scaled - i < prob[i] ? i : alias[i];
+    }
+}
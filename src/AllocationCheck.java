@@ -0,0 +1,97 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Random;
+
+// Checks that a warmed-up game step allocates nothing, as GC pauses in the
+// middle of a boss fight are what players notice. Plays rounds of each
+// level through the SimulationLink that GamePane's loop steps, with a bot
+// queueing clicks as the EDT would: each step drains them into the engine,
+// ticks and publishes a snapshot, which is then taken as the renderer
+// would. After the warm-up (long enough for the JIT to settle) every step
+// is measured with the thread's allocation counter (round starts are not:
+// they reset the engine). Drawing the snapshot on the canvas is not
+// covered, as it needs a window.
+// Exits with status 1 if any step allocated, so a build script can run it.
+//
+//   java -Djava.awt.headless=true -cp bin:acm.jar AllocationCheck
+public class AllocationCheck {
+
+    private static final int WARMUP_STEPS = 100_000;  // whole rounds, until at least this many
+    private static final int MEASURED_ROUNDS = 10;
+    private static final double CLICK_CHANCE = 0.3;    // per step
+    private static final double POWERUP_CHANCE = 0.02;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        Map<String, SpawnTable> tables = SpawnTable.load(SpawnTable.FILE);
+        boolean ok = true;
+        ok &= check("level1 classic", new GameEngine(BoardConfig.CLASSIC, false, 0), tables);
+        ok &= check("level1 20x20", new GameEngine(BoardConfig.ARENA, false, 0), tables);
+        ok &= check("boss", new GameEngine(BoardConfig.CLASSIC, true, 0), tables);
+        ok &= check("swarm 500", new GameEngine(BoardConfig.CLASSIC, true, 500), tables);
+        if (!ok) System.exit(1);
+    }
+
+    private static boolean check(String name, GameEngine engine, Map<String, SpawnTable> tables) {
+        engine.setArena(MainApplication.WINDOW_WIDTH, MainApplication.WINDOW_HEIGHT);
+        SimulationLink link = new SimulationLink(engine, 64);
+        Random bot = new Random(7);
+
+        // warm-up steps are measured the same way, so the allocation
+        // counter's own code is compiled by the time the counting starts
+        long tid = Thread.currentThread().getId();
+        long warm = 0;
+        long steps = 0;
+        long allocated = 0;
+        long worst = 0;
+        int measured = 0;
+        for (int round = 0; measured < MEASURED_ROUNDS; round++) {
+            boolean counted = warm >= WARMUP_STEPS;
+            if (counted) measured++;
+            engine.startRound(round, tables);
+            while (!engine.isFinished()) {
+                long before = THREADS.getThreadAllocatedBytes(tid);
+                step(engine, link, bot);
+                long bytes = THREADS.getThreadAllocatedBytes(tid) - before;
+                if (!counted) {
+                    warm++;
+                    continue;
+                }
+                allocated += bytes;
+                worst = Math.max(worst, bytes);
+                steps++;
+            }
+        }
+
+        if (allocated == 0) {
+            System.out.println(name + ": " + steps + " steps, nothing allocated");
+            return true;
+        }
+        System.out.println("ERROR " + name + ": " + steps + " steps allocated " + allocated
+                + " bytes (worst step " + worst + ")");
+        return false;
+    }
+
+    // One step of GamePane's loop, both threads' halves
+    private static void step(GameEngine engine, SimulationLink link, Random bot) {
+        // EDT: clicks
+        if (bot.nextDouble() < CLICK_CHANCE) {
+            if (engine.getRatCount() > 0) {
+                Ratdg r = engine.getRat(bot.nextInt(engine.getRatCount()));
+                link.offer(InputRecording.WHACK, r.getAimX(), r.getAimY(engine.getWorldMs()));
+            } else {
+                link.offer(InputRecording.WHACK, bot.nextDouble() * MainApplication.WINDOW_WIDTH,
+                        bot.nextDouble() * MainApplication.WINDOW_HEIGHT);
+            }
+        }
+        if (bot.nextDouble() < POWERUP_CHANCE) {
+            link.offer(InputRecording.FREEZE + bot.nextInt(3), 0, 0);
+        }
+
+        // simulation thread, then EDT
+        link.step(System.nanoTime(), GameEngine.TICK_MS);
+        link.take();
+    }
+}
@@ -0,0 +1,53 @@
+import java.awt.image.BufferedImage;
+
+// One bit per pixel: set where the sprite is opaque enough to count as a
+// hit. Rows are packed into longs, so a 64x64 sprite is 64 longs and a
+// lookup is a shift and a mask. Built once per sprite image and shared by
+// every rat that uses it (see SpriteCache.getMask).
+public final class AlphaMask {
+
+    public static final int DEFAULT_THRESHOLD = 32;  // faint edge pixels don't count
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    private AlphaMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    public static AlphaMask of(BufferedImage img, int threshold) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        AlphaMask mask = new AlphaMask(w, h);
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            int base = y * mask.wordsPerRow;
+            for (int x = 0; x < w; x++) {
+                if ((row[x] >>> 24) >= threshold) {
+                    mask.bits[base + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return mask;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // x, y relative to the sprite's top-left corner; outside is a miss
+    public boolean contains(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+}
@@ -0,0 +1,148 @@
+import acm.graphics.GImage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Decodes everything listed in Media/manifest.txt on a worker pool at
+// startup. Images land in SpriteCache and sounds in the SoundBank, so panes
+// can look them up without touching the disk. Lookups never block: they
+// return null until the asset is ready.
+public class AssetManager {
+
+    public static final String MEDIA_DIR = "Media";
+    private static final String MANIFEST = MEDIA_DIR + "/manifest.txt";
+
+    private final SoundBank soundBank;
+    private final List<String> entries = new ArrayList<>();
+    private final AtomicInteger loaded = new AtomicInteger();
+    private CountDownLatch done = new CountDownLatch(0);
+
+    public AssetManager(SoundBank soundBank) {
+        this.soundBank = soundBank;
+    }
+
+    // Starts decoding every manifest entry in the background
+    public void loadAll() {
+        entries.clear();
+        entries.addAll(readManifest());
+        loaded.set(0);
+        done = new CountDownLatch(entries.size());
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (String name : entries) {
+            pool.execute(() -> {
+                try {
+                    load(name);
+                } catch (Exception e) {
+                    System.out.println("Failed to load asset " + name + ": " + e.getMessage());
+                } finally {
+                    loaded.incrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        pool.shutdown();
+    }
+
+    // Blocks the calling thread (never the EDT) until loadAll has finished
+    public void awaitLoaded() {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    // 0.0 - 1.0
+    public double getProgress() {
+        if (entries.isEmpty()) return 1.0;
+        return loaded.get() / (double) entries.size();
+    }
+
+    // Decoded image by file name, or null if it isn't loaded (yet)
+    public BufferedImage getImage(String name) {
+        return SpriteCache.peek(name, 0, 0);
+    }
+
+    // GImage over the preloaded pixels, or null (logged) if the image isn't
+    // loaded: it is never read from disk here, as this runs on the EDT
+    public GImage createImage(String name) {
+        BufferedImage img = getImage(name);
+        if (img == null) {
+            System.out.println("Image not preloaded: " + name);
+            return null;
+        }
+        return new GImage(img);
+    }
+
+    // Plain grey stand-in for a missing image
+    public static GImage placeholder(int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(90, 90, 90));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return new GImage(img);
+    }
+
+    private void load(String name) {
+        String lower = name.toLowerCase();
+        if (lower.endsWith(".wav")) {
+            soundBank.get(MEDIA_DIR + "/" + name);
+        } else {
+            SpriteCache.get(name, 0, 0);
+        }
+    }
+
+    // Manifest entries, or every file in Media/ if there is no manifest
+    private static List<String> readManifest() {
+        List<String> names = new ArrayList<>();
+        File manifest = new File(MANIFEST);
+
+        if (manifest.exists()) {
+            try (BufferedReader in = new BufferedReader(new FileReader(manifest))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    names.add(line);
+                }
+                return names;
+            } catch (Exception e) {
+                System.out.println("Failed to read asset manifest: " + e.getMessage());
+                names.clear();
+            }
+        }
+
+        File[] files = new File(MEDIA_DIR).listFiles();
+        if (files != null) {
+            for (File f : files) {
+                String n = f.getName().toLowerCase();
+                if (n.endsWith(".png") || n.endsWith(".jpg") || n.endsWith(".jpeg") || n.endsWith(".wav")) {
+                    names.add(f.getName());
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,214 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Software mixer: one SourceDataLine fed by a dedicated audio thread that
+// sums every playing voice into a small buffer. Voices are sound effects:
+// 16-bit stereo samples in FORMAT, played once. Background music is pulled
+// from a MusicStream, with a crossfade when the track changes.
+public class AudioMixer implements Runnable {
+
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+
+    private static final int MAX_VOICES = 16;
+    private static final int BUFFER_FRAMES = 512;  // ~11.6 ms per mix pass
+    private static final int CROSSFADE_FRAMES = 44100;  // 1 s
+
+    private static class Voice {
+        short[] samples;     // interleaved L/R, null when the voice is free
+        int position;        // index into samples
+        long startedAt;
+    }
+
+    private final Voice[] voices = new Voice[MAX_VOICES];
+
+    // mix buffers, reused for every pass
+    private final int[] mixBuffer = new int[BUFFER_FRAMES * 2];
+    private final byte[] outBuffer = new byte[BUFFER_FRAMES * 4];
+    private final short[] streamBuffer = new short[BUFFER_FRAMES * 2];
+
+    // music: the UI thread posts the next stream, the audio thread swaps it in
+    private final AtomicReference<MusicStream> pendingMusic = new AtomicReference<>();
+    private MusicStream music;        // audio thread only
+    private MusicStream fadingMusic;  // previous track while crossfading
+    private int fadeFrame = 0;
+
+    // linear gains (0..1), written by the UI thread, read by the audio thread
+    private volatile float mainGain = 0.5f;
+    private volatile float sfxGain = 0.5f;
+    private volatile float musicGain = 0.5f;
+
+    private SourceDataLine line;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    public AudioMixer() {
+        for (int i = 0; i < voices.length; i++) {
+            voices[i] = new Voice();
+        }
+    }
+
+    public void start() {
+        if (running) return;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, outBuffer.length * 4);
+            line.start();
+        } catch (Exception e) {
+            System.out.println("ERROR opening audio line: " + e.getMessage());
+            line = null;
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        MusicStream pending = pendingMusic.getAndSet(null);
+        if (pending != null) pending.stop();
+        if (music != null) music.stop();
+        if (fadingMusic != null) fadingMusic.stop();
+        if (thread != null) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
+    }
+
+    // volumes are 0-100, same scale as the settings sliders
+    public void setVolumes(int mainVolume, int sfxVolume, int musicVolume) {
+        mainGain = mainVolume / 100f;
+        sfxGain = sfxVolume / 100f;
+        musicGain = musicVolume / 100f;
+    }
+
+    // Starts a voice; steals the oldest voice when all are busy
+    public void play(short[] samples) {
+        if (samples == null || samples.length == 0) return;
+
+        synchronized (voices) {
+            Voice target = null;
+            for (Voice v : voices) {
+                if (v.samples == null) {
+                    target = v;
+                    break;
+                }
+                if (target == null || v.startedAt < target.startedAt) {
+                    target = v;
+                }
+            }
+
+            target.samples = samples;
+            target.position = 0;
+            target.startedAt = System.nanoTime();
+        }
+    }
+
+    // Switches background music, crossfading from whatever is playing now
+    public void playMusic(MusicStream stream) {
+        if (!running) return;
+        stream.start();
+        MusicStream replaced = pendingMusic.getAndSet(stream);
+        if (replaced != null) replaced.stop();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            mix();
+            line.write(outBuffer, 0, outBuffer.length);
+        }
+    }
+
+    private void mix() {
+        Arrays.fill(mixBuffer, 0);
+
+        float main = mainGain;
+        mixMusic(musicGain * main);
+
+        // 16.16 fixed point so the inner loop is integer only
+        int g = (int) (sfxGain * main * 65536f);
+
+        synchronized (voices) {
+            for (Voice v : voices) {
+                if (v.samples == null) continue;
+
+                short[] src = v.samples;
+                int pos = v.position;
+                int n = Math.min(mixBuffer.length, src.length - pos);
+                for (int k = 0; k < n; k++) {
+                    mixBuffer[k] += (src[pos + k] * g) >> 16;
+                }
+                pos += n;
+                if (pos >= src.length) {
+                    v.samples = null;
+                }
+                v.position = pos;
+            }
+        }
+
+        writeOutput();
+    }
+
+    private void mixMusic(float gain) {
+        MusicStream next = pendingMusic.getAndSet(null);
+        if (next != null) {
+            if (fadingMusic != null) fadingMusic.stop();
+            fadingMusic = music;
+            music = next;
+            fadeFrame = 0;
+        }
+
+        if (music != null) mixStream(music, gain, true);
+        if (fadingMusic != null) mixStream(fadingMusic, gain, false);
+
+        if (fadeFrame < CROSSFADE_FRAMES) {
+            fadeFrame += BUFFER_FRAMES;
+            if (fadeFrame >= CROSSFADE_FRAMES && fadingMusic != null) {
+                fadingMusic.stop();
+                fadingMusic = null;
+            }
+        }
+    }
+
+    private void mixStream(MusicStream stream, float gain, boolean fadingIn) {
+        int n = stream.read(streamBuffer, streamBuffer.length);
+        for (int i = 0; i < n; i++) {
+            float fade = 1f;
+            int frame = fadeFrame + (i >> 1);
+            if (frame < CROSSFADE_FRAMES) {
+                fade = frame / (float) CROSSFADE_FRAMES;
+                if (!fadingIn) fade = 1f - fade;
+            } else if (!fadingIn) {
+                fade = 0f;
+            }
+            mixBuffer[i] += (int) (streamBuffer[i] * gain * fade);
+        }
+    }
+
+    private void writeOutput() {
+        for (int i = 0, b = 0; i < mixBuffer.length; i++, b += 2) {
+            int s = mixBuffer[i];
+            if (s > Short.MAX_VALUE) s = Short.MAX_VALUE;
+            else if (s < Short.MIN_VALUE) s = Short.MIN_VALUE;
+            outBuffer[b] = (byte) s;
+            outBuffer[b + 1] = (byte) (s >> 8);
+        }
+    }
+}
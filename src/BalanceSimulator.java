@@ -0,0 +1,351 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Monte Carlo balancing: plays many whole games (level 1, then the boss
+// level) per parameter set on GameEngine, with a scripted bot instead of a
+// player, and prints the level 1 score distribution and how the boss
+// fights ended. Games run on every core through fork/join; each task gets
+// its own SplittableRandom, split off its parent's, so a run is the same
+// for the same seed whatever the number of cores.
+//
+// A parameter set is a board (see BoardConfig.parse) with optional rule
+// changes after a slash (see GameRules.parse), e.g. "classic/bossHp=400"
+// or "20x20:0.3/chance=0.06,normalLife=1000". With no sets given, a
+// small sweep over spawn chance and boss HP on the classic board is run.
+//
+//   java -Djava.awt.headless=true -cp bin:acm.jar BalanceSimulator
+//        [games=N] [bot=casual|average|expert] [seed=N] [SET...]
+public class BalanceSimulator {
+
+    private static final int DEFAULT_GAMES = 20_000;  // per parameter set
+    private static final int LEAF_GAMES = 250;        // games one task plays without splitting
+
+    // boss HP from the default up to where the average bot mostly loses
+    private static final String[] DEFAULT_SWEEP = {
+        "classic/chance=0.04", "classic/chance=0.04,bossHp=900", "classic/chance=0.04,bossHp=1100",
+        "classic", "classic/chance=0.05,bossHp=900", "classic/chance=0.05,bossHp=1100",
+        "classic/chance=0.06", "classic/chance=0.06,bossHp=900", "classic/chance=0.06,bossHp=1100",
+    };
+
+    public static void main(String[] args) {
+        int games = DEFAULT_GAMES;
+        Bot bot = Bot.AVERAGE;
+        long seed = 42;
+        List<String> sets = new ArrayList<>();
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("games=")) {
+                    games = Integer.parseInt(arg.substring("games=".length()));
+                } else if (arg.startsWith("bot=")) {
+                    bot = Bot.valueOf(arg.substring("bot=".length()).toUpperCase(Locale.ROOT));
+                } else if (arg.startsWith("seed=")) {
+                    seed = Long.parseLong(arg.substring("seed=".length()));
+                } else {
+                    sets.add(arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("ERROR in arguments: " + e.getMessage());
+            return;
+        }
+        if (sets.isEmpty()) sets.addAll(Arrays.asList(DEFAULT_SWEEP));
+
+        Map<String, SpawnTable> tables = SpawnTable.load(SpawnTable.FILE);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("%d games per set, %s bot, %d threads%n",
+                games, bot.name().toLowerCase(Locale.ROOT), pool.getParallelism());
+        System.out.printf("%-36s %8s %8s %7s %7s %7s %8s %8s %8s %7s%n", "set", "mean",
+                "sd", "p10", "p50", "p90", "boss win", "wrecked", "escaped", "secs");
+
+        long start = System.nanoTime();
+        for (String text : sets) {
+            ParamSet set;
+            try {
+                set = ParamSet.parse(text);
+            } catch (IllegalArgumentException e) {
+                System.out.println("ERROR in set " + text + ": " + e.getMessage());
+                continue;
+            }
+            long setStart = System.nanoTime();
+            Results r = pool.invoke(new SimTask(set, bot, tables, games, new SplittableRandom(seed)));
+            r.print(set, (System.nanoTime() - setStart) / 1e9);
+        }
+        System.out.printf("done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    // ------------------------------------------------------------
+    // Parameter sets
+    // ------------------------------------------------------------
+
+    private static final class ParamSet {
+        final String name;  // as given on the command line
+        final BoardConfig board;
+        final GameRules rules;
+
+        ParamSet(String name, BoardConfig board, GameRules rules) {
+            this.name = name;
+            this.board = board;
+            this.rules = rules;
+        }
+
+        static ParamSet parse(String text) {
+            int slash = text.indexOf('/');
+            if (slash < 0) return new ParamSet(text, BoardConfig.parse(text), GameRules.DEFAULT);
+            return new ParamSet(text, BoardConfig.parse(text.substring(0, slash)),
+                    GameRules.parse(text.substring(slash + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Bots
+    // ------------------------------------------------------------
+
+    // A scripted player: waits reactionMs after a rat appears before going
+    // for it, needs clickIntervalMs between clicks, and hits what it aims at
+    // with the given accuracy (a miss lands a little off). The moving boss
+    // is aimed at where it was reactionMs ago, so it can slip away from a
+    // click. Never aims at trap rats; power-ups are used as soon as they
+    // are ready, if at all.
+    private enum Bot {
+        CASUAL(500, 400, 0.70, false),
+        AVERAGE(350, 250, 0.85, true),
+        EXPERT(220, 150, 0.95, true);
+
+        final int reactionMs;
+        final int clickIntervalMs;
+        final double accuracy;
+        final boolean usesPowerups;
+
+        Bot(int reactionMs, int clickIntervalMs, double accuracy, boolean usesPowerups) {
+            this.reactionMs = reactionMs;
+            this.clickIntervalMs = clickIntervalMs;
+            this.accuracy = accuracy;
+            this.usesPowerups = usesPowerups;
+        }
+
+        // Plays one round to the end
+        void play(GameEngine engine, SplittableRandom rng) {
+            Sight boss = new Sight(reactionMs);
+            int waitMs = 0;
+            while (!engine.isFinished()) {
+                boss.look(engine);
+                if (waitMs > 0) {
+                    waitMs -= GameEngine.TICK_MS;
+                } else if (act(engine, boss, rng)) {
+                    waitMs = clickIntervalMs;
+                }
+                engine.tick(GameEngine.TICK_MS);
+            }
+        }
+
+        // One decision; true if the bot clicked something
+        private boolean act(GameEngine engine, Sight boss, SplittableRandom rng) {
+            if (usesPowerups) {
+                int powerup = readyPowerup(engine);
+                if (powerup >= 0) {
+                    engine.input(powerup, 0, 0);
+                    return true;
+                }
+            }
+
+            Ratdg target = null;
+            long now = engine.getWorldMs();
+            for (int i = 0; i < engine.getRatCount(); i++) {
+                Ratdg r = engine.getRat(i);
+                if (r.isVisible() && r.getType() != RatType.TRAP
+                        && r.getAgeMs(now) >= reactionMs) {
+                    target = r;
+                    break;
+                }
+            }
+            if (target == null) return false;
+
+            double x, y;
+            if (target.getType() == RatType.BOSS) {
+                if (!boss.hasSeen()) return false;
+                x = boss.getX();
+                y = boss.getY();
+            } else {
+                x = target.getAimX();
+                y = target.getAimY(now);
+            }
+            if (rng.nextDouble() >= accuracy) {
+                x += (rng.nextBoolean() ? 1 : -1) * (30 + rng.nextDouble() * 30);
+                y += (rng.nextBoolean() ? 1 : -1) * (30 + rng.nextDouble() * 30);
+            }
+            engine.input(InputRecording.WHACK, x, y);
+            return true;
+        }
+
+        // crit for the boss; x2 points, then freeze, once a few rats are out
+        private static int readyPowerup(GameEngine engine) {
+            if (engine.getPhase() == GameEngine.Phase.BOSS) {
+                return engine.isCritBusy() ? -1 : InputRecording.CRIT;
+            }
+            int rats = engine.getOccupiedHoles();
+            if (rats >= 3 && !engine.isDoublePointsBusy()) return InputRecording.DOUBLE_POINTS;
+            if (rats >= 4 && !engine.isFreezeBusy()) return InputRecording.FREEZE;
+            return -1;
+        }
+    }
+
+    // Where a bot has seen the boss over its last reactionMs, one position
+    // per tick in a ring; getX/getY give the oldest, the one it reacts to
+    private static final class Sight {
+        private final double[] xs, ys;
+        private int count = 0;
+
+        Sight(int reactionMs) {
+            int n = Math.max(1, reactionMs / GameEngine.TICK_MS);
+            xs = new double[n];
+            ys = new double[n];
+        }
+
+        void look(GameEngine engine) {
+            for (int i = 0; i < engine.getRatCount(); i++) {
+                Ratdg r = engine.getRat(i);
+                if (r.getType() != RatType.BOSS || !r.isVisible()) continue;
+                int k = count++ % xs.length;
+                xs[k] = r.getAimX();
+                ys[k] = r.getAimY(engine.getWorldMs());
+                return;
+            }
+        }
+
+        boolean hasSeen() {
+            return count >= xs.length;
+        }
+
+        double getX() {
+            return xs[count % xs.length];
+        }
+
+        double getY() {
+            return ys[count % xs.length];
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Simulation
+    // ------------------------------------------------------------
+
+    // Plays its share of the games, splitting in half (and splitting its
+    // RNG) until a share is small enough to play on one thread
+    private static final class SimTask extends RecursiveTask<Results> {
+        private static final long serialVersionUID = 1L;
+
+        private final ParamSet set;
+        private final Bot bot;
+        private final Map<String, SpawnTable> tables;  // read-only, shared
+        private final int games;
+        private final SplittableRandom rng;
+
+        SimTask(ParamSet set, Bot bot, Map<String, SpawnTable> tables, int games,
+                SplittableRandom rng) {
+            this.set = set;
+            this.bot = bot;
+            this.tables = tables;
+            this.games = games;
+            this.rng = rng;
+        }
+
+        @Override
+        protected Results compute() {
+            if (games <= LEAF_GAMES) return playAll();
+
+            int half = games / 2;
+            SimTask left = new SimTask(set, bot, tables, half, rng.split());
+            SimTask right = new SimTask(set, bot, tables, games - half, rng);
+            left.fork();
+            Results results = right.compute();
+            results.add(left.join());
+            return results;
+        }
+
+        private Results playAll() {
+            // one engine per level, reused for every game (headless: no sprites shown)
+            GameEngine level1 = new GameEngine(set.board, set.rules, false, 0);
+            GameEngine boss = new GameEngine(set.board, set.rules, true, 0);
+            level1.setArena(MainApplication.WINDOW_WIDTH, MainApplication.WINDOW_HEIGHT);
+            boss.setArena(MainApplication.WINDOW_WIDTH, MainApplication.WINDOW_HEIGHT);
+
+            Results results = new Results(games);
+            for (int i = 0; i < games; i++) {
+                level1.startRound(rng.nextLong(), tables);
+                bot.play(level1, rng);
+
+                boss.startRound(rng.nextLong(), tables);
+                bot.play(boss, rng);
+
+                results.addGame(level1.getScore(), boss);
+            }
+            return results;
+        }
+    }
+
+    // Outcome counts plus every level 1 score, for percentiles
+    private static final class Results {
+        private int[] scores;
+        private int games = 0;
+        private int bossWins = 0;
+        private int wrecked = 0;
+        private int escaped = 0;
+
+        Results(int capacity) {
+            scores = new int[capacity];
+        }
+
+        void addGame(int level1Score, GameEngine boss) {
+            if (games == scores.length) scores = Arrays.copyOf(scores, games * 2 + 1);
+            scores[games++] = level1Score;
+            if (boss.getBossHp() == 0) bossWins++;
+            else if (boss.getPlayerHp() == 0) wrecked++;
+            else escaped++;
+        }
+
+        void add(Results other) {
+            int[] all = Arrays.copyOf(scores, games + other.games);
+            System.arraycopy(other.scores, 0, all, games, other.games);
+            scores = all;
+            games += other.games;
+            bossWins += other.bossWins;
+            wrecked += other.wrecked;
+            escaped += other.escaped;
+        }
+
+        void print(ParamSet set, double seconds) {
+            if (games == 0) return;
+            int[] sorted = Arrays.copyOf(scores, games);
+            Arrays.sort(sorted);
+
+            double sum = 0;
+            for (int s : sorted) sum += s;
+            double mean = sum / games;
+            double sq = 0;
+            for (int s : sorted) sq += (s - mean) * (s - mean);
+            double sd = Math.sqrt(sq / games);
+
+            System.out.printf("%-36s %8.1f %8.1f %7d %7d %7d %7.1f%% %7.1f%% %7.1f%% %7.1f%n",
+                    set, mean, sd, percentile(sorted, 10), percentile(sorted, 50),
+                    percentile(sorted, 90), 100.0 * bossWins / games,
+                    100.0 * wrecked / games, 100.0 * escaped / games, seconds);
+        }
+
+        private static int percentile(int[] sorted, int p) {
+            int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Locale;
+
+// Size of a level-1 board: a rows x cols grid of holes, and the density,
+// i.e. the largest fraction of those holes that may hold a rat at once.
+// The classic board is 3x4 with up to 5 rats; arena boards go up to
+// hundreds of holes, laid out to fit the canvas by BoardLayout.
+public final class BoardConfig {
+
+    public static final int MAX_ROWS = 64;
+    public static final int MAX_COLS = 64;
+
+    public static final BoardConfig CLASSIC = new BoardConfig(3, 4, 5 / 12.0);
+    public static final BoardConfig ARENA = new BoardConfig(20, 20, 0.25);
+
+    private final int rows;
+    private final int cols;
+    private final double density;
+
+    public BoardConfig(int rows, int cols, double density) {
+        if (rows < 1 || rows > MAX_ROWS || cols < 1 || cols > MAX_COLS) {
+            throw new IllegalArgumentException("board must be 1x1 to "
+                    + MAX_ROWS + "x" + MAX_COLS + ": " + rows + "x" + cols);
+        }
+        if (!(density > 0 && density <= 1)) {
+            throw new IllegalArgumentException("density must be in (0, 1]: " + density);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.density = density;
+    }
+
+    // "ROWSxCOLS" or "ROWSxCOLS:DENSITY" (e.g. "20x20:0.25"), or a preset
+    // name ("classic", "arena")
+    public static BoardConfig parse(String text) {
+        String s = text.trim().toLowerCase();
+        if (s.equals("classic")) return CLASSIC;
+        if (s.equals("arena")) return ARENA;
+
+        try {
+            double density = CLASSIC.density;
+            int colon = s.indexOf(':');
+            if (colon >= 0) {
+                density = Double.parseDouble(s.substring(colon + 1));
+                s = s.substring(0, colon);
+            }
+            int x = s.indexOf('x');
+            if (x < 0) throw new IllegalArgumentException("expected ROWSxCOLS: " + text);
+            int rows = Integer.parseInt(s.substring(0, x));
+            int cols = Integer.parseInt(s.substring(x + 1));
+            return new BoardConfig(rows, cols, density);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad board size: " + text);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public double getDensity() {
+        return density;
+    }
+
+    public int getHoleCount() {
+        return rows * cols;
+    }
+
+    // At least one rat, whatever the density
+    public int getMaxActiveRats() {
+        return Math.max(1, (int) Math.round(getHoleCount() * density));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof BoardConfig)) return false;
+        BoardConfig b = (BoardConfig) o;
+        return rows == b.rows && cols == b.cols && density == b.density;
+    }
+
+    @Override
+    public int hashCode() {
+        return (rows * 31 + cols) * 31 + Double.hashCode(density);
+    }
+
+    // parse() form, density rounded and left out when it's parse()'s default
+    @Override
+    public String toString() {
+        if (equals(CLASSIC)) return "classic";
+        if (density == CLASSIC.density) return rows + "x" + cols;
+        return String.format(Locale.ROOT, "%dx%d:%.2f", rows, cols, density);
+    }
+}
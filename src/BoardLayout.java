@@ -0,0 +1,87 @@
+// Where a board's holes go on a canvas of a given size. The grid spreads
+// out to at most the classic board's spacing and shrinks to fit the space
+// between the top bar and the power-up buttons; holes (and the rats in
+// them, through getScale) shrink with the spacing so neighbours never touch.
+public final class BoardLayout {
+
+    public static final double MAX_HOLE_RADIUS = 30;
+
+    private static final double BOARD_Y = 120;        // top of the wooden board
+    private static final double BOARD_PADDING = 40;   // wood around the outer holes
+    private static final double SIDE_MARGIN = 60;     // canvas edge to the board
+    private static final double BOTTOM_SPACE = 140;   // power-up bar below the board
+    private static final double MAX_PITCH_X = 520 / 3.0;  // classic 3x4 spacing
+    private static final double MAX_PITCH_Y = 260 / 2.0;
+    private static final double RADIUS_PER_PITCH = 0.4;   // gap of 1/5 pitch between holes
+
+    private final int rows, cols;
+    private final double startX, startY, pitchX, pitchY;
+    private final double holeRadius;
+    private final double boardX, boardY, boardW, boardH;
+
+    private BoardLayout(BoardConfig config, double w, double h) {
+        rows = config.getRows();
+        cols = config.getCols();
+
+        double maxGridW = Math.max(0, w - 2 * SIDE_MARGIN - 2 * BOARD_PADDING);
+        double maxGridH = Math.max(0, h - BOARD_Y - BOTTOM_SPACE - 2 * BOARD_PADDING);
+        pitchX = cols > 1 ? Math.min(MAX_PITCH_X, maxGridW / (cols - 1)) : 0;
+        pitchY = rows > 1 ? Math.min(MAX_PITCH_Y, maxGridH / (rows - 1)) : 0;
+
+        double pitch = MAX_HOLE_RADIUS / RADIUS_PER_PITCH;
+        if (cols > 1) pitch = Math.min(pitch, pitchX);
+        if (rows > 1) pitch = Math.min(pitch, pitchY);
+        holeRadius = Math.max(1, Math.min(MAX_HOLE_RADIUS, pitch * RADIUS_PER_PITCH));
+
+        double gridW = (cols - 1) * pitchX;
+        double gridH = (rows - 1) * pitchY;
+        boardW = gridW + 2 * BOARD_PADDING;
+        boardH = gridH + 2 * BOARD_PADDING;
+        boardX = (w - boardW) / 2.0;
+        boardY = BOARD_Y;
+        startX = boardX + BOARD_PADDING;
+        startY = boardY + BOARD_PADDING;
+    }
+
+    public static BoardLayout generate(BoardConfig config, double canvasWidth, double canvasHeight) {
+        return new BoardLayout(config, canvasWidth, canvasHeight);
+    }
+
+    public int getHoleCount() {
+        return rows * cols;
+    }
+
+    // Holes are numbered row by row
+    public double getHoleX(int index) {
+        return startX + (index % cols) * pitchX;
+    }
+
+    public double getHoleY(int index) {
+        return startY + (index / cols) * pitchY;
+    }
+
+    public double getHoleRadius() {
+        return holeRadius;
+    }
+
+    // Sprite scale for rats on this board (1 on the classic board)
+    public double getScale() {
+        return holeRadius / MAX_HOLE_RADIUS;
+    }
+
+    public double getBoardX() {
+        return boardX;
+    }
+
+    public double getBoardY() {
+        return boardY;
+    }
+
+    public double getBoardWidth() {
+        return boardW;
+    }
+
+    public double getBoardHeight() {
+        return boardH;
+    }
+}
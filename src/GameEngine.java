@@ -0,0 +1,784 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// The game itself, with no UI: board, rats, spawning, lifetimes, scoring,
+// power-ups, the boss (or swarm) and phase changes, advanced one fixed
+// step at a time by tick(). GamePane drives it from its game loop thread
+// and renders published snapshots of it; headless tools (benchmarks,
+// replays, balance runs) drive it directly, as fast as it will go.
+//
+// Not thread-safe: one thread owns an engine at a time. Things a UI may
+// want to react to (hits, cooldown notices, the boss attacking) are
+// reported to the Listener on that thread.
+public class GameEngine {
+
+    // Timing
+    public static final int TICK_MS = 40;   // default simulation step (25 Hz)
+    public static final int GAME_DURATION_MS = 45 * 1000; // level 1
+    public static final int BOSS_DURATION_MS = 1 * 60 * 1000; // boss level
+    private static final int TIMER_RESOLUTION_MS = 8;  // timer wheel slot width
+    private static final int TIMER_SLOTS = 1024;       // ~8 s per turn of the wheel
+
+    // HP / boss
+    // (boss HP and hit damage are in GameRules)
+    public static final int PLAYER_MAX_HP = 100;
+    private static final int BOSS_ATTACK_INTERVAL_MS = 1500;
+    private static final int BOSS_ATTACK_DAMAGE = 10;
+    private static final int BOSS_HIT_SCORE = 250;
+    private static final double BOSS_SPEED_X = 0.12;  // pixels per ms
+    private static final double BOSS_SPEED_Y = 0.09;
+
+    // Area the boss (and every swarm rat) bounces around in
+    private static final double BOSS_MARGIN_X = 120;
+    private static final double BOSS_MARGIN_TOP = 130;
+    private static final double BOSS_MARGIN_BOTTOM = 120;
+
+    // Swarm mode: many small bosses instead of one
+    public static final int SWARM_SPRITE_SIZE = 32;
+    private static final int SWARM_RAT_HP = 2 * GameRules.DEFAULT.getBossHitDamage();  // two hits, one with crit
+    private static final int SWARM_HIT_SCORE = 50;
+    private static final double SWARM_MIN_SPEED = 0.06;  // pixels per ms, per axis
+    private static final double SWARM_MAX_SPEED = 0.18;
+
+    // Power-ups
+    private static final int POWERUP_DURATION_MS = 5000;   // 5 seconds active
+    private static final int POWERUP_COOLDOWN_MS = 10000;  // 10 seconds cooldown
+
+    // Scoring
+    private static final int MISS_PENALTY = 25;
+
+    public enum Phase { NORMAL, BOSS, FINISHED }
+
+    public enum GameEvent {
+        RAT_WHACKED,        // value: score change
+        BOSS_HIT,           // value: damage
+        SWARM_HIT,          // value: damage
+        MISSED,             // value: score change
+        POWERUP_USED,       // value: InputRecording power-up code
+        POWERUP_COOLING,    // value: InputRecording power-up code
+        PLAYER_HIT          // value: damage
+    }
+
+    public interface Listener {
+        void onEvent(GameEvent event, int value);
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+        @Override
+        public void onEvent(GameEvent event, int value) { }
+    };
+
+    // ---- Configuration
+    private final BoardConfig board;
+    private final GameRules rules;
+    private final boolean bossLevel;
+    private final int maxActiveRats;
+    private Listener listener = NO_LISTENER;
+
+    // ---- Round state
+    private Phase phase = Phase.NORMAL;
+    private int timeRemainingMs = GAME_DURATION_MS;
+    private int playerHp = PLAYER_MAX_HP;
+    private int bossHp;  // total of every swarm rat in swarm mode
+    private int score = 0;
+    private int cooldownNotices = 0;    // bumped when a power-up is still cooling down
+    private boolean levelComplete = false;
+    private String endText = null;      // game-over banner once the round has ended
+    private double arenaW, arenaH;
+
+    private BoardLayout layout;
+    private final List<Hole> holes = new ArrayList<>();
+    private final HoleOccupancy occupancy = new HoleOccupancy();
+
+    // Hit-test grids: holes (a rat in a hole is found through its hole)
+    // and free-moving rats such as the boss
+    private SpatialGrid<Hole> holeGrid;
+    private SpatialGrid<Ratdg> ratGrid;
+    private SpatialGrid.Entry<Ratdg> bossEntry;
+    private final List<Ratdg> activeRats;
+    private final Random rng = new Random();  // reseeded for every round
+    private RatPool ratPool;  // replaced only when the hole size changes
+
+    // Spawn rules for this level; spawnTable is the current phase's (null: no spawns)
+    private Map<String, SpawnTable> spawnTables;
+    private SpawnTable spawnTable;
+
+    // Recording / replay. The simulation is a function of the round's seed,
+    // the step size and the inputs applied on each tick, so those are all a
+    // recording holds. recording is the live round being written, replay
+    // the recording being played back instead of live input.
+    private int tickNo = 0;  // ticks run this round
+    private InputRecording recording;
+    private InputRecording replay;
+    private int replayPos = 0;
+
+    // Scheduled events. Game time drives power-up expiry and cooldowns;
+    // world time is game time slowed down by freeze, and drives rat
+    // lifetimes and boss attacks.
+    private final TimerWheel gameTimers = new TimerWheel(TIMER_RESOLUTION_MS, TIMER_SLOTS);
+    private final TimerWheel worldTimers = new TimerWheel(TIMER_RESOLUTION_MS, TIMER_SLOTS);
+    private long prevWorldMs = 0;  // world time one step ago, to interpolate rat ages
+
+    private final TimerWheel.Event bossAttack = new TimerWheel.Event() {
+        @Override
+        protected void fire() {
+            onBossAttack();
+        }
+    };
+
+    // Boss
+    private BossRat bossRat = null;
+    private double bossX, bossY;
+    private double bossVX = BOSS_SPEED_X;   // pixels per ms
+    private double bossVY = BOSS_SPEED_Y;   // pixels per ms
+
+    // Swarm mode: positions, velocities and HP of every swarm rat live in
+    // the Swarm's arrays (null when this is not a swarm level)
+    private final Swarm swarm;
+    private final int bossMaxHp;
+
+    // Power-up state: each one is busy while active or while its cooldown
+    // event is still scheduled on gameTimers
+    private boolean freezeActive = false;
+    private boolean doublePointsActive = false;
+    private boolean critActive = false;
+
+    private final TimerWheel.Event freezeExpiry = new TimerWheel.Event() {
+        @Override
+        protected void fire() {
+            freezeActive = false;
+        }
+    };
+    private final TimerWheel.Event doublePointsExpiry = new TimerWheel.Event() {
+        @Override
+        protected void fire() {
+            doublePointsActive = false;
+        }
+    };
+    private final TimerWheel.Event critExpiry = new TimerWheel.Event() {
+        @Override
+        protected void fire() {
+            critActive = false;
+        }
+    };
+
+    private final TimerWheel.Event freezeCooldown = new Cooldown();
+    private final TimerWheel.Event doublePointsCooldown = new Cooldown();
+    private final TimerWheel.Event critCooldown = new Cooldown();
+
+    // nothing to do when a cooldown ends; being scheduled is the state
+    private static final class Cooldown extends TimerWheel.Event {
+        @Override
+        protected void fire() { }
+    }
+
+    // bossLevel: the round is the boss fight; swarmSize > 0 replaces the
+    // boss with that many small ones.
+    public GameEngine(BoardConfig board, boolean bossLevel, int swarmSize) {
+        this(board, GameRules.DEFAULT, bossLevel, swarmSize);
+    }
+
+    public GameEngine(BoardConfig board, GameRules rules, boolean bossLevel, int swarmSize) {
+        this.board = board;
+        this.rules = rules;
+        this.bossLevel = bossLevel;
+        this.swarm = swarmSize > 0 ? new Swarm(swarmSize) : null;
+        this.bossMaxHp = swarmSize > 0 ? swarmSize * SWARM_RAT_HP : rules.getBossMaxHp();
+        this.bossHp = bossMaxHp;
+        this.maxActiveRats = board.getMaxActiveRats();
+        this.activeRats = new ArrayList<>(maxActiveRats + 1);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    // --------------------------------------------------------
+    // Rounds
+    // --------------------------------------------------------
+
+    // Lays the board out for an arena of this size. Only between rounds;
+    // rats are re-made only if the hole size changed.
+    public void setArena(double w, double h) {
+        releaseAllRats();
+        arenaW = w;
+        arenaH = h;
+
+        layout = BoardLayout.generate(board, w, h);
+        if (ratPool == null || layout.getScale() != ratPool.getSpriteScale()) {
+            createRatPool(layout.getScale());
+        }
+
+        holes.clear();
+        occupancy.clear();
+        for (int i = 0; i < layout.getHoleCount(); i++) {
+            Hole hole = new Hole(layout.getHoleX(i), layout.getHoleY(i));
+            occupancy.add(hole);
+            holes.add(hole);
+        }
+
+        // grid cells and whack reach follow the hole size, so a click only
+        // ever checks the few holes around it, however big the board
+        double reach = 2 * layout.getHoleRadius();  // covers any rat sprite in a hole
+        holeGrid = new SpatialGrid<>(w, h, reach);
+        for (Hole hole : holes) {
+            holeGrid.insert(hole, hole.getX() - reach, hole.getY() - reach,
+                    2 * reach, 2 * reach);
+        }
+        ratGrid = new SpatialGrid<>(w, h, 2 * BoardLayout.MAX_HOLE_RADIUS);
+        bossEntry = null;
+    }
+
+    private void createRatPool(double spriteScale) {
+        ratPool = new RatPool(maxActiveRats, spriteScale);
+        if (swarm != null) {
+            return;  // no pooled rats: the swarm is plain arrays
+        } else if (bossLevel) {
+            ratPool.prewarm(RatType.BOSS, 1);
+        } else {
+            ratPool.prewarm(RatType.NORMAL, maxActiveRats);
+            ratPool.prewarm(RatType.BONUS, maxActiveRats);
+            ratPool.prewarm(RatType.TRAP, maxActiveRats);
+        }
+    }
+
+    // Starts a fresh round (setArena first). Everything random in the round
+    // comes from seed.
+    public void startRound(long seed, Map<String, SpawnTable> spawnTables) {
+        releaseAllRats();
+        rng.setSeed(seed);
+        this.spawnTables = spawnTables;
+        recording = null;
+        replay = null;
+        replayPos = 0;
+        tickNo = 0;
+
+        setPhase(Phase.NORMAL);
+        timeRemainingMs = bossLevel ? BOSS_DURATION_MS : GAME_DURATION_MS;
+        playerHp = PLAYER_MAX_HP;
+        bossHp = bossMaxHp;
+        gameTimers.clear();
+        worldTimers.clear();
+        prevWorldMs = 0;
+        score = 0;
+        cooldownNotices = 0;
+        levelComplete = false;
+        endText = null;
+        bossVX = BOSS_SPEED_X;
+        bossVY = BOSS_SPEED_Y;
+
+        resetPowerups();  // all power-ups fresh at start
+
+        // boss level starts directly in boss phase
+        if (bossLevel) {
+            startBossPhase();
+        }
+    }
+
+    // Live inputs from now on are logged here (null: stop recording)
+    public void setRecording(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    // Plays this recording's inputs instead of live ones; call right after
+    // startRound with the recording's seed
+    public void setReplay(InputRecording replay) {
+        this.replay = replay;
+        replayPos = 0;
+    }
+
+    // Returns every rat to the pool, e.g. before leaving the screen
+    public void releaseAllRats() {
+        for (int i = 0; i < activeRats.size(); i++) {
+            Ratdg r = activeRats.get(i);
+            r.despawn();
+            ratPool.release(r);
+        }
+        activeRats.clear();
+
+        if (ratGrid != null) ratGrid.clear();
+        bossEntry = null;
+        bossRat = null;
+        if (swarm != null) swarm.clear();
+    }
+
+    // --------------------------------------------------------
+    // Simulation
+    // --------------------------------------------------------
+
+    // A live input (InputRecording event type), applied right away as part
+    // of the coming tick, and recorded with that tick; during a replay it is
+    // ignored. An input that ends the round (boss or swarm defeated) counts
+    // that tick as run, since tick() won't: a replay then applies it on the
+    // same tick and ends on the recorded one.
+    public void input(int type, double x, double y) {
+        if (replay != null || phase == Phase.FINISHED) return;
+        if (recording != null) recording.add(tickNo, type, x, y);
+        applyInput(type, x, y);
+        if (phase == Phase.FINISHED) tickNo++;
+    }
+
+    // Notes a pause or resume in the recording (no effect on the game)
+    public void mark(int type) {
+        if (recording != null) recording.add(tickNo, type, 0, 0);
+    }
+
+    // One fixed step: replayed inputs due on this tick, then the world. The
+    // end tick check comes first: a round that ended on an input ends one
+    // tick after it (see input()), so that input is still applied here
+    public void tick(int deltaMs) {
+        if (phase == Phase.FINISHED) return;
+
+        if (replay != null) {
+            if (tickNo >= replay.getEndTick()) {
+                // the recorded round was left here, before it ended
+                phase = Phase.FINISHED;
+                endText = "REPLAY OVER";
+                return;
+            }
+            while (replayPos < replay.size() && replay.getTick(replayPos) <= tickNo) {
+                applyInput(replay.getType(replayPos), replay.getX(replayPos), replay.getY(replayPos));
+                replayPos++;
+            }
+        }
+        if (phase != Phase.FINISHED) {
+            advance(deltaMs);
+        }
+        tickNo++;
+    }
+
+    private void applyInput(int type, double x, double y) {
+        switch (type) {
+            case InputRecording.WHACK:         handleWhack(x, y); break;
+            case InputRecording.FREEZE:        handleFreezeButton(); break;
+            case InputRecording.DOUBLE_POINTS: handleX2PointsButton(); break;
+            case InputRecording.CRIT:          handleX2CritButton(); break;
+            default:                           break;  // pause / resume: timeline only
+        }
+    }
+
+    private void advance(int deltaMs) {
+        // power-up expiry / cooldown ends that are now due
+        gameTimers.advance(deltaMs);
+
+        // scaled time for rats / boss (freeze slows these down a lot)
+        double timeScale = freezeActive ? 0.3 : 1.0;
+        int scaledDelta = (int) Math.max(1, Math.round(deltaMs * timeScale));
+
+        // global game timer is NOT slowed by freeze
+        if (timeRemainingMs > 0) {
+            timeRemainingMs -= deltaMs;
+            if (timeRemainingMs <= 0) {
+                timeRemainingMs = 0;
+                onTimeExpired();
+            }
+        }
+
+        // rat despawns and boss attacks that are now due
+        prevWorldMs = worldTimers.now();
+        worldTimers.advance(scaledDelta);
+        releaseInactiveRats();
+
+        // Rats spawn in phases that have a spawn table (by default only level 1)
+        if (spawnTable != null && timeRemainingMs > 0) {
+            // fewer spawns while frozen
+            double spawnScale = freezeActive ? spawnTable.getFreezeScale() : 1.0;
+            // spawn chance is tuned per TICK_MS: scale it to the actual step
+            maybeSpawn(spawnScale * deltaMs / TICK_MS);
+        }
+
+        // boss movement (attacks are scheduled on worldTimers)
+        if (phase == Phase.BOSS && bossRat != null && bossRat.isVisible()) {
+            moveBoss(scaledDelta);
+        }
+        if (phase == Phase.BOSS && swarm != null) {
+            swarm.step(scaledDelta, BOSS_MARGIN_X, BOSS_MARGIN_TOP,
+                    arenaW - BOSS_MARGIN_X, arenaH - BOSS_MARGIN_BOTTOM);
+        }
+    }
+
+    // Phase changes also switch to that phase's spawn table
+    private void setPhase(Phase phase) {
+        this.phase = phase;
+        spawnTable = spawnTables.get(SpawnTable.key(getLevelName(), phase.name()));
+    }
+
+    private void onTimeExpired() {
+        if (phase == Phase.NORMAL) {
+            // end of level 1: the UI moves on to the boss level
+            phase = Phase.FINISHED;
+            levelComplete = true;
+        } else if (phase == Phase.BOSS) {
+            phase = Phase.FINISHED;
+            endText = "BOSS ESCAPED!";
+        }
+    }
+
+    private boolean bossAlive() {
+        return (bossRat != null && bossRat.isVisible()) || (swarm != null && swarm.size() > 0);
+    }
+
+    // Boss attack event: hits the player and schedules the next attack
+    private void onBossAttack() {
+        if (phase != Phase.BOSS || !bossAlive()) return;
+
+        playerHp -= BOSS_ATTACK_DAMAGE;
+        if (playerHp < 0) playerHp = 0;
+        listener.onEvent(GameEvent.PLAYER_HIT, BOSS_ATTACK_DAMAGE);
+        if (playerHp == 0) {
+            phase = Phase.FINISHED;
+            endText = "YOU WERE WRECKED!";
+            return;
+        }
+        worldTimers.scheduleAt(bossAttack, bossAttack.getDeadline() + BOSS_ATTACK_INTERVAL_MS);
+    }
+
+    private void startBossPhase() {
+        setPhase(Phase.BOSS);
+        timeRemainingMs = BOSS_DURATION_MS;
+
+        // Clear all normal rats
+        releaseAllRats();
+
+        bossHp = bossMaxHp;
+        worldTimers.schedule(bossAttack, BOSS_ATTACK_INTERVAL_MS);
+        if (swarm != null) {
+            spawnSwarm();
+            return;
+        }
+
+        // Spawn boss in the center
+        double centerX = arenaW / 2.0;
+        double centerY = 120 + 200;
+        bossRat = (BossRat) ratPool.acquire(RatType.BOSS);
+        activeRats.add(bossRat);
+        Hole temp = new Hole(centerX, centerY);
+        temp.spawn(bossRat, worldTimers);
+
+        // init movement position
+        bossX = centerX;
+        bossY = centerY;
+        bossEntry = indexMovingRat(null, bossRat);
+    }
+
+    // Fills the swarm with rats scattered over the boss area, each heading
+    // off in its own direction
+    private void spawnSwarm() {
+        double minX = BOSS_MARGIN_X, maxX = arenaW - BOSS_MARGIN_X;
+        double minY = BOSS_MARGIN_TOP, maxY = arenaH - BOSS_MARGIN_BOTTOM;
+        swarm.clear();
+        while (swarm.size() < swarm.capacity()) {
+            swarm.add(minX + rng.nextDouble() * (maxX - minX),
+                      minY + rng.nextDouble() * (maxY - minY),
+                      randomSwarmSpeed(), randomSwarmSpeed(), SWARM_RAT_HP);
+        }
+        bossHp = swarm.totalHp();
+    }
+
+    private double randomSwarmSpeed() {
+        double speed = SWARM_MIN_SPEED + rng.nextDouble() * (SWARM_MAX_SPEED - SWARM_MIN_SPEED);
+        return rng.nextBoolean() ? speed : -speed;
+    }
+
+    // Move boss & bounce inside a central rectangle
+    private void moveBoss(int deltaMs) {
+        if (bossRat == null) return;
+
+        double w = arenaW;
+        double h = arenaH;
+
+        // movement based on velocity (px per ms)
+        bossX += bossVX * deltaMs;
+        bossY += bossVY * deltaMs;
+
+        // bounds for movement (stay inside dark area)
+        double marginX = BOSS_MARGIN_X;
+        double marginTop = BOSS_MARGIN_TOP;
+        double marginBottom = BOSS_MARGIN_BOTTOM;
+
+        // bounce horizontally
+        if (bossX < marginX) {
+            bossX = marginX;
+            bossVX = -bossVX;
+        } else if (bossX > w - marginX) {
+            bossX = w - marginX;
+            bossVX = -bossVX;
+        }
+
+        // bounce vertically
+        if (bossY < marginTop) {
+            bossY = marginTop;
+            bossVY = -bossVY;
+        } else if (bossY > h - marginBottom) {
+            bossY = h - marginBottom;
+            bossVY = -bossVY;
+        }
+
+        bossRat.moveTo(bossX, bossY);  // drawn interpolated by the renderer
+        indexMovingRat(bossEntry, bossRat);
+    }
+
+    private SpatialGrid.Entry<Ratdg> indexMovingRat(SpatialGrid.Entry<Ratdg> entry, Ratdg r) {
+        if (entry == null) {
+            return ratGrid.insert(r, r.getReachX(), r.getReachY(),
+                    r.getReachWidth(), r.getReachHeight());
+        }
+        ratGrid.update(entry, r.getReachX(), r.getReachY(),
+                r.getReachWidth(), r.getReachHeight());
+        return entry;
+    }
+
+    // Expected spawns per step grow with the board's rat limit, so bigger
+    // boards fill up as fast as the classic one; more than one rat may come
+    // out in a step once that passes 1 (package-private for HotPathBenchmark)
+    void maybeSpawn(double spawnScale) {
+        double base = rules.getSpawnChance() > 0 ? rules.getSpawnChance() : spawnTable.getChance();
+        double chance = base * spawnScale
+                * maxActiveRats / BoardConfig.CLASSIC.getMaxActiveRats();
+        for (; chance > 0; chance -= 1) {
+            if (occupancy.occupiedCount() >= maxActiveRats) return;
+            if (rng.nextDouble() > chance) return;
+            spawnRat();
+        }
+    }
+
+    private void spawnRat() {
+        Hole hole = occupancy.randomFree(rng);
+        if (hole == null) return;
+
+        RatType type = spawnTable.pick(rng.nextDouble());
+        Ratdg rat = ratPool.acquire(type);
+        int lifetimeMs = rules.getLifetimeMs(type);
+        if (lifetimeMs > 0) rat.setLifetimeMs(lifetimeMs);
+        activeRats.add(rat);
+        hole.spawn(rat, worldTimers);
+    }
+
+    // Return despawned rats to the pool (index loop: no iterator/lambda garbage)
+    private void releaseInactiveRats() {
+        for (int i = activeRats.size() - 1; i >= 0; i--) {
+            Ratdg r = activeRats.get(i);
+            if (!r.isActive()) {
+                activeRats.remove(i);
+                ratPool.release(r);
+            }
+        }
+    }
+
+    // --------------------------------------------------------
+    // Input handling
+    // --------------------------------------------------------
+
+    private void resetPowerups() {
+        freezeActive = false;
+        freezeExpiry.cancel();
+        freezeCooldown.cancel();
+
+        doublePointsActive = false;
+        doublePointsExpiry.cancel();
+        doublePointsCooldown.cancel();
+
+        critActive = false;
+        critExpiry.cancel();
+        critCooldown.cancel();
+    }
+
+    private void handleFreezeButton() {
+        if (freezeActive || freezeCooldown.isScheduled()) {
+            coolingDown(InputRecording.FREEZE);
+            return;
+        }
+        freezeActive = true;
+        gameTimers.schedule(freezeExpiry, POWERUP_DURATION_MS);
+        gameTimers.schedule(freezeCooldown, POWERUP_COOLDOWN_MS);
+        listener.onEvent(GameEvent.POWERUP_USED, InputRecording.FREEZE);
+    }
+
+    private void handleX2PointsButton() {
+        if (doublePointsActive || doublePointsCooldown.isScheduled()) {
+            coolingDown(InputRecording.DOUBLE_POINTS);
+            return;
+        }
+        doublePointsActive = true;
+        gameTimers.schedule(doublePointsExpiry, POWERUP_DURATION_MS);
+        gameTimers.schedule(doublePointsCooldown, POWERUP_COOLDOWN_MS);
+        listener.onEvent(GameEvent.POWERUP_USED, InputRecording.DOUBLE_POINTS);
+    }
+
+    private void handleX2CritButton() {
+        if (critActive || critCooldown.isScheduled()) {
+            coolingDown(InputRecording.CRIT);
+            return;
+        }
+        critActive = true;
+        gameTimers.schedule(critExpiry, POWERUP_DURATION_MS);
+        gameTimers.schedule(critCooldown, POWERUP_COOLDOWN_MS);
+        listener.onEvent(GameEvent.POWERUP_USED, InputRecording.CRIT);
+    }
+
+    private void coolingDown(int powerup) {
+        cooldownNotices++;  // the UI shows the message
+        listener.onEvent(GameEvent.POWERUP_COOLING, powerup);
+    }
+
+    private void handleWhack(double x, double y) {
+        long now = worldTimers.now();
+
+        // boss click
+        if (phase == Phase.BOSS && bossRat != null && movingRatAt(x, y, now) == bossRat) {
+            int dmg = rules.getBossHitDamage();
+            if (critActive) dmg *= 2; // x2 crit damage on boss
+
+            bossHp -= dmg;
+            if (bossHp < 0) bossHp = 0;
+
+            score += BOSS_HIT_SCORE;
+            listener.onEvent(GameEvent.BOSS_HIT, dmg);
+
+            if (bossHp == 0) {
+                bossRat.despawn();
+                activeRats.remove(bossRat);
+                ratPool.release(bossRat);
+                ratGrid.remove(bossEntry);
+                bossEntry = null;
+                bossRat = null;
+                phase = Phase.FINISHED;
+                timeRemainingMs = 0;
+                endText = "BOSS DEFEATED!";
+            }
+            return;
+        }
+
+        // swarm rat click
+        if (phase == Phase.BOSS && swarm != null) {
+            double half = SWARM_SPRITE_SIZE / 2.0;
+            int i = swarm.hitAt(x, y, half, half);
+            if (i < 0) return;
+
+            int dmg = rules.getBossHitDamage();
+            if (critActive) dmg *= 2;
+            bossHp -= Math.min(dmg, swarm.getHp(i));
+            score += SWARM_HIT_SCORE;
+            listener.onEvent(GameEvent.SWARM_HIT, dmg);
+
+            if (swarm.damage(i, dmg) && swarm.size() == 0) {
+                phase = Phase.FINISHED;
+                timeRemainingMs = 0;
+                endText = "SWARM DEFEATED!";
+            }
+            return;
+        }
+
+        // normal rats
+        Ratdg r = holeRatAt(x, y, now);
+        if (r != null) {
+            int delta = 0;
+            switch (r.getType()) {
+                case NORMAL:
+                    delta = 50;
+                    break;
+                case BONUS:
+                    delta = 100;
+                    break;
+                case TRAP:
+                    delta = -25;
+                    break;
+                default:
+                    break;
+            }
+
+            // apply x2 points logic
+            if (doublePointsActive) {
+                if (delta > 0) {
+                    delta *= 2;
+                } else if (delta < 0) {
+                    // trap rat becomes -50 while x2 is on
+                    delta = -50;
+                }
+            }
+
+            score += delta;
+            r.despawn();
+            listener.onEvent(GameEvent.RAT_WHACKED, delta);
+            return;
+        }
+
+        // misclick penalty in level 1
+        if (phase == Phase.NORMAL && timeRemainingMs > 0) {
+            score -= MISS_PENALTY;
+            listener.onEvent(GameEvent.MISSED, -MISS_PENALTY);
+        }
+    }
+
+    // Rat sitting in a hole under the point; only holes whose grid cell
+    // holds the point are checked (package-private for HotPathBenchmark)
+    Ratdg holeRatAt(double x, double y, long now) {
+        List<SpatialGrid.Entry<Hole>> candidates = holeGrid.candidatesAt(x, y);
+        for (int i = 0; i < candidates.size(); i++) {
+            SpatialGrid.Entry<Hole> e = candidates.get(i);
+            if (!e.contains(x, y)) continue;
+            Ratdg r = e.getItem().getRat();
+            if (r != null && r.isVisible() && r.containsPoint(x, y, now)) return r;
+        }
+        return null;
+    }
+
+    // Free-moving rat (the boss) under the point
+    private Ratdg movingRatAt(double x, double y, long now) {
+        List<SpatialGrid.Entry<Ratdg>> candidates = ratGrid.candidatesAt(x, y);
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            SpatialGrid.Entry<Ratdg> e = candidates.get(i);
+            if (!e.contains(x, y)) continue;
+            Ratdg r = e.getItem();
+            if (r.isVisible() && r.containsPoint(x, y, now)) return r;
+        }
+        return null;
+    }
+
+    // --------------------------------------------------------
+    // State
+    // --------------------------------------------------------
+
+    public String getLevelName() {
+        return bossLevel ? "boss" : "level1";
+    }
+
+    public BoardConfig getBoard() { return board; }
+    public GameRules getRules() { return rules; }
+    public BoardLayout getLayout() { return layout; }
+    public List<Hole> getHoles() { return holes; }
+    public int getMaxActiveRats() { return maxActiveRats; }
+    public int getSwarmSize() { return swarm != null ? swarm.capacity() : 0; }
+    public int getBossMaxHp() { return bossMaxHp; }
+
+    public Phase getPhase() { return phase; }
+    public boolean isFinished() { return phase == Phase.FINISHED; }
+    public int getTickNo() { return tickNo; }
+    public int getTimeRemainingMs() { return timeRemainingMs; }
+    public int getPlayerHp() { return playerHp; }
+    public int getBossHp() { return bossHp; }
+    public int getScore() { return score; }
+    public int getCooldownNotices() { return cooldownNotices; }
+    public boolean isLevelComplete() { return levelComplete; }
+    public String getEndText() { return endText; }
+    public boolean isReplaying() { return replay != null; }
+
+    // active or cooling down
+    public boolean isFreezeBusy() { return freezeActive || freezeCooldown.isScheduled(); }
+    public boolean isDoublePointsBusy() { return doublePointsActive || doublePointsCooldown.isScheduled(); }
+    public boolean isCritBusy() { return critActive || critCooldown.isScheduled(); }
+
+    // Rats on the board (some may have despawned during this step)
+    public int getRatCount() { return activeRats.size(); }
+    public Ratdg getRat(int i) { return activeRats.get(i); }
+    public int getOccupiedHoles() { return occupancy.occupiedCount(); }
+
+    // World clock now and one step ago (rat ages are measured on it)
+    public long getWorldMs() { return worldTimers.now(); }
+    public long getPrevWorldMs() { return prevWorldMs; }
+
+    // null unless this is a swarm level
+    public Swarm getSwarm() { return swarm; }
+}
@@ -0,0 +1,168 @@
+import javax.swing.SwingUtilities;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// Fixed-timestep game loop. A dedicated simulation thread wakes once per
+// display frame, measures the real time that passed with System.nanoTime
+// and runs as many fixed simulation steps as that time covers
+// (accumulator). It then posts a render to the EDT without waiting for it,
+// so a slow paint or a blocked EDT never holds up the game clock, and a
+// long step never holds up painting.
+//
+// The simulation rate is independent of the display rate: the step code
+// publishes each state with getSimTimeNanos() so the renderer can
+// interpolate between the last two states on fast monitors. A step that
+// throws stops the loop (start() runs it again).
+public class GameLoop implements Runnable {
+
+    public interface Callbacks {
+        void step(int stepMs);  // simulation thread
+        void render();          // EDT
+    }
+
+    private static final long MAX_FRAME_NANOS = 250_000_000L;  // avoid spiral of death
+
+    private final Callbacks callbacks;
+    private final long frameNanos;
+    private volatile int stepMs;
+
+    private volatile boolean running = false;
+    private volatile Thread thread;
+
+    // simulation-thread state
+    private long simTimeNanos;
+
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+    private final Runnable frameTask = new Runnable() {
+        @Override
+        public void run() {
+            framePending.set(false);
+            if (running) callbacks.render();
+        }
+    };
+
+    public GameLoop(Callbacks callbacks, int stepMs) {
+        this.callbacks = callbacks;
+        this.frameNanos = 1_000_000_000L / displayRefreshRate();
+        setStepMs(stepMs);
+    }
+
+    public int getStepMs() {
+        return stepMs;
+    }
+
+    public void setStepMs(int stepMs) {
+        this.stepMs = Math.max(1, stepMs);
+    }
+
+    // Steps are whole milliseconds so game timers stay exact: 25 Hz -> 40 ms,
+    // 60 Hz -> 17 ms, 120 Hz -> 8 ms. Takes effect on the next frame.
+    public void setSimulationRate(int hz) {
+        setStepMs(Math.round(1000f / Math.max(1, hz)));
+    }
+
+    // nanoTime the state computed by the current step belongs to.
+    // Only meaningful on the simulation thread, inside step().
+    public long getSimTimeNanos() {
+        return simTimeNanos;
+    }
+
+    // Fraction (0..1) of a step that has passed since a state published at
+    // simTimeNanos, i.e. how far to interpolate from the previous state to it
+    public static double alpha(long simTimeNanos, int stepMs) {
+        double a = (System.nanoTime() - simTimeNanos) / (stepMs * 1_000_000.0);
+        if (a < 0) return 0;
+        if (a > 1) return 1;
+        return a;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+
+        Thread t = new Thread(this, "game-loop");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    // Returns once the simulation thread has finished its current step, so
+    // the caller may safely touch simulation state afterwards
+    public void stop() {
+        running = false;
+        Thread t = thread;
+        thread = null;
+        if (t == null || t == Thread.currentThread()) return;
+        LockSupport.unpark(t);
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        Thread self = Thread.currentThread();
+        long last = System.nanoTime();
+        long next = last;
+        long accumulator = 0;
+
+        while (running && thread == self) {
+            next += frameNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            } else {
+                next = System.nanoTime();  // fell behind: don't try to catch up frames
+            }
+            if (!running || thread != self) break;
+
+            long now = System.nanoTime();
+            accumulator += Math.min(now - last, MAX_FRAME_NANOS);
+            last = now;
+
+            int step = stepMs;
+            long stepNanos = step * 1_000_000L;
+            while (running && accumulator >= stepNanos) {
+                accumulator -= stepNanos;
+                simTimeNanos = now - accumulator;
+                try {
+                    callbacks.step(step);
+                } catch (RuntimeException e) {
+                    // a broken step would fail again on every tick: report it once and stop
+                    System.out.println("ERROR in game step, game loop stopped: " + e);
+                    running = false;
+                    if (thread == self) thread = null;
+                    return;
+                }
+            }
+
+            // at most one frame queued on the EDT at a time
+            if (framePending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(frameTask);
+            }
+        }
+    }
+
+    private static int displayRefreshRate() {
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice().getDisplayMode();
+                int hz = mode.getRefreshRate();
+                if (hz != DisplayMode.REFRESH_RATE_UNKNOWN && hz > 0) return hz;
+            }
+        } catch (Exception e) {
+            // fall back to 60 Hz
+        }
+        return 60;
+    }
+}
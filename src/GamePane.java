@@ -4,57 +4,77 @@ import javax.swing.Timer;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public class GamePane extends GraphicsPane {
 
-    // Layout
-    private static final int ROWS = 3;
-    private static final int COLS = 4;
-    private static final double GRID_WIDTH = 520;
-    private static final double GRID_HEIGHT = 260;
-    private static final double HOLE_RADIUS = 30;
-
-    // Timing
-    private static final int TICK_MS = 40;
-    private static final double SPAWN_CHANCE = 0.05;
-    private static final int MAX_ACTIVE_RATS = 5;
-    private static final int GAME_DURATION_MS = 45 * 1000; // level 1
-    private static final int BOSS_DURATION_MS = 1 * 60 * 1000; // boss level
-
-    // HP / boss
-    private static final int PLAYER_MAX_HP = 100;
-    private static final int BOSS_MAX_HP = 500;
-    private static final int BOSS_ATTACK_INTERVAL_MS = 1500;
-    private static final int BOSS_ATTACK_DAMAGE = 10;
-    private static final int BOSS_HIT_DAMAGE = 25;
-
-    // Power-ups
-    private static final int POWERUP_DURATION_MS = 5000;   // 5 seconds active
-    private static final int POWERUP_COOLDOWN_MS = 10000;  // 10 seconds cooldown
-
-    private enum Phase { NORMAL, BOSS, FINISHED }
-    private Phase phase = Phase.NORMAL;
-
-    private int timeRemainingMs = GAME_DURATION_MS;
-
-    private int playerHp = PLAYER_MAX_HP;
-    private int bossHp = BOSS_MAX_HP;
-    private int bossAttackTimerMs = 0;
-
-    private final List<Hole> holes = new ArrayList<>();
-    private final List<Ratdg> activeRats = new ArrayList<>();
-    private final Random rng = new Random();
-
-    private Timer timer;
+    // Layout (hole positions and sizes come from BoardLayout)
+    private static final double HUD_GRID_CELL = 60;  // hit-test grid cell size for the HUD
+    private static final double TOP_BAR_HEIGHT = 60;
+
+    // HUD colors that change during play
+    private static final Color BUTTON_COLOR = new Color(30, 30, 30);
+    private static final Color BUTTON_BUSY_COLOR = new Color(80, 80, 80);
+    private static final Color HP_HIGH_COLOR = new Color(60, 200, 80);
+    private static final Color HP_MID_COLOR = new Color(230, 190, 60);
+    private static final Color HP_LOW_COLOR = new Color(220, 60, 60);
+
+    // "MM:SS" for every whole second a round can show, made once
+    private static final String[] TIMER_TEXT = new String[GameEngine.BOSS_DURATION_MS / 1000 + 1];
+    static {
+        for (int s = 0; s < TIMER_TEXT.length; s++) {
+            TIMER_TEXT[s] = String.format("%02d:%02d", s / 60, s % 60);
+        }
+    }
+
+    // ---- The game itself: owned by the game loop thread while it runs;
+    // the EDT only touches it in showContent/hideContent with the loop stopped
+    private final GameEngine engine;
+    private final Random seedSource = new Random();
+
+    // Recording / replay of whole sessions (see InputRecording). recording
+    // is the live session being written, replay the recording being played
+    // back instead of live input.
+    private static final String REPLAY_DIR = "replays";
+    private InputRecording recording;
+    private InputRecording replay;
+    private InputRecording pendingReplay;  // set by startReplay for the next show
+
+    // ---- Handoff between the threads: input in, snapshots out
+    private static final int INPUT_QUEUE_SIZE = 64;
+    private final SimulationLink link;
+
+    // ---- EDT state: scene objects and what is currently drawn
+    private final RenderLayers layers = new RenderLayers();
+    private SpatialGrid<GObject> hudGrid;  // click targets in the HUD
+    private final Map<Ratdg, RatNode> ratNodes;  // sprite of every rat drawn so far
+    private final List<RatNode> drawnNodes;      // those on screen
+    private int drawnSeq;  // seq of the snapshot the HUD shows
+    private int frameNo = 0;
+    private int shownSeconds, shownPlayerHp, shownBossHp, shownCooldownNotices;
+    private boolean roundOver = false;
+
+    private GameLoop gameLoop;
     private GObject hammer;
-    private GRect topBar;
+    private double hammerX, hammerY;  // latest mouse position, applied on render
+    private BufferedImage boardLayerImage;  // pre-rendered static background
+    private GImage boardLayer;
     private GObject bossBackdrop;
     private GLabel backLabel;
     private GLabel timerLabel;
@@ -68,12 +88,12 @@ public class GamePane extends GraphicsPane {
     private GLabel bossHpLabel;
 
     private boolean scoreRecorded = false;
-    private BossRat bossRat = null;
 
-    // Boss movement
-    private double bossX, bossY;
-    private double bossVX = 0.12;   // pixels per ms
-    private double bossVY = 0.09;   // pixels per ms
+    // Swarm mode: the EDT draws swarm rats with plain image proxies
+    private final List<GObject> swarmProxies = new ArrayList<>();
+    private int shownSwarm = 0;  // proxies currently visible
+    // box around the proxies as last drawn (empty when none are shown)
+    private double swarmX0, swarmY0, swarmX1, swarmY1;
 
     // Pause menu
     private boolean paused = false;
@@ -87,9 +107,6 @@ public class GamePane extends GraphicsPane {
     private GLabel exitLabel;
     private GLabel pauseTitleLabel;
 
-    // Boss-focus overlay
-    private GRect bossOverlay;
-
     // Power-up buttons + status
     private GRect freezeButtonRect;
     private GRect x2PointsButtonRect;
@@ -99,173 +116,239 @@ public class GamePane extends GraphicsPane {
     private GLabel x2CritLabel;
     private GLabel powerupStatusLabel;
 
-    // Power-up state
-    private boolean freezeActive = false;
-    private int freezeRemainingMs = 0;
-    private int freezeCooldownRemainingMs = 0;
-
-    private boolean doublePointsActive = false;
-    private int doublePointsRemainingMs = 0;
-    private int doublePointsCooldownRemainingMs = 0;
-
-    private boolean critActive = false;
-    private int critRemainingMs = 0;
-    private int critCooldownRemainingMs = 0;
-
     // When true, this pane is the dedicated boss level
     private final boolean bossModeOnly;
 
     // Level 1 constructor
     public GamePane(MainApplication mainScreen) {
-        this(mainScreen, false);
+        this(mainScreen, BoardConfig.CLASSIC);
+    }
+
+    // Level 1 on a board of any size
+    public GamePane(MainApplication mainScreen, BoardConfig board) {
+        this(mainScreen, board, false, 0);
     }
 
     // Boss-only constructor
     public GamePane(MainApplication mainScreen, boolean bossModeOnly) {
+        this(mainScreen, BoardConfig.CLASSIC, bossModeOnly, 0);
+    }
+
+    // Swarm boss level: swarmSize small bosses instead of one big one
+    public GamePane(MainApplication mainScreen, int swarmSize) {
+        this(mainScreen, BoardConfig.CLASSIC, true, swarmSize);
+    }
+
+    private GamePane(MainApplication mainScreen, BoardConfig board, boolean bossModeOnly,
+                     int swarmSize) {
         this.mainScreen = mainScreen;
         this.bossModeOnly = bossModeOnly;
-        setupTimer();
+        this.engine = new GameEngine(board, bossModeOnly, swarmSize);
+        this.ratNodes = new IdentityHashMap<>(4 * (engine.getMaxActiveRats() + 1));
+        this.drawnNodes = new ArrayList<>(engine.getMaxActiveRats() + 1);
+        this.link = new SimulationLink(engine, INPUT_QUEUE_SIZE);
+
+        // hits are heard right away, on the simulation thread
+        engine.setListener(new GameEngine.Listener() {
+            @Override
+            public void onEvent(GameEngine.GameEvent event, int value) {
+                switch (event) {
+                    case RAT_WHACKED:
+                    case BOSS_HIT:
+                    case SWARM_HIT:
+                        mainScreen.playSound("Media/hammer_hit.wav");
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+
+        // rats are made for the layout at the current canvas size; a resize
+        // that changes the hole size gets new ones in buildScene
+        engine.setArena(mainScreen.getWidth(), mainScreen.getHeight());
+        setupGameLoop();
+    }
+
+    public BoardConfig getBoardConfig() {
+        return engine.getBoard();
     }
 
     @Override
     public void showContent() {
-        // wipe previous drawings
-        for (GObject obj : contents) {
-            mainScreen.remove(obj);
-        }
-        contents.clear();
-        holes.clear();
-        activeRats.clear();
-        bossRat = null;
-
-        // draw board/UI
-        buildBoard();
-
-        // reset game state
-        phase = Phase.NORMAL;
-        timeRemainingMs = bossModeOnly ? BOSS_DURATION_MS : GAME_DURATION_MS;
-        playerHp = PLAYER_MAX_HP;
-        bossHp = BOSS_MAX_HP;
-        bossAttackTimerMs = 0;
+        // the loop is stopped here, so the EDT may reset simulation state
+        gameLoop.stop();
+
+        // wipe leftovers (overlays, rats) from the previous round
+        removeOverlays();
+        engine.releaseAllRats();
+        detachAllRatNodes();
+        hideSwarmProxies();
+        link.clearInputs();
+
+        // board/UI is built once, then re-attached on every visit
+        attachScene();
+
+        // a new session: fresh seed, or the recorded one when replaying
+        replay = pendingReplay;
+        pendingReplay = null;
+        long seed = replay != null ? replay.getSeed() : seedSource.nextLong();
+
+        // reset game state (a boss level starts directly in boss phase)
+        if (bossModeOnly) markAllDirty();
+        engine.startRound(seed, mainScreen.getSpawnTables());
         scoreRecorded = false;
+        roundOver = false;
         paused = false;
 
-        updateTimerLabel();
-        updatePlayerHpBar();
-        updateBossHpBar();
-        mainScreen.setScore(0);
-
-        resetPowerups();  // all power-ups fresh at start
-
-        // boss level starts directly in boss phase
-        if (bossModeOnly) {
-            startBossPhase();
+        // from here on only changed regions are repainted
+        mainScreen.getRepaintTracker().setEnabled(true);
+
+        // draw the fresh state once, then hand the simulation to the loop
+        gameLoop.setSimulationRate(mainScreen.getSimulationHz());
+        if (replay != null) {
+            gameLoop.setStepMs(replay.getStepMs());
+            recording = null;
+            engine.setReplay(replay);
+        } else {
+            recording = new InputRecording(engine.getLevelName(), seed,
+                    SpawnTable.hash(mainScreen.getSpawnTables()), gameLoop.getStepMs(),
+                    engine.getBoard(), engine.getSwarmSize(),
+                    (int) mainScreen.getWidth(), (int) mainScreen.getHeight());
+            engine.setRecording(recording);
         }
-
-        if (timer != null) timer.start();
+        link.publish(System.nanoTime(), gameLoop.getStepMs());
+        shownSeconds = shownPlayerHp = shownBossHp = -1;
+        shownCooldownNotices = 0;
+        drawnSeq = 0;
+        setStatusText("");
+        renderFrame();
+
+        gameLoop.start();
     }
 
     @Override
     public void hideContent() {
-        if (timer != null) timer.stop();
+        gameLoop.stop();
+        finishSession();
+        mainScreen.getRepaintTracker().setEnabled(false);
 
-        for (Ratdg r : activeRats) {
-            r.despawn();
-        }
-        activeRats.clear();
-        bossRat = null;
+        engine.releaseAllRats();
+        detachAllRatNodes();
+        hideSwarmProxies();
+        link.clear();
 
-        for (GObject obj : contents) {
-            mainScreen.remove(obj);
-        }
-        contents.clear();
+        removeOverlays();
+        detachScene();
 
         paused = false;
     }
 
+    // Plays a recording on the next show instead of taking live input.
+    // The recording must come from this level with the same board, and the
+    // spawn tables must not have changed since it was made.
+    public boolean startReplay(InputRecording rec) {
+        if (!rec.getLevel().equals(engine.getLevelName()) || !rec.getBoard().equals(engine.getBoard())
+                || rec.getSwarmSize() != engine.getSwarmSize()) {
+            System.out.println("ERROR replay is for " + rec.getLevel() + " on " + rec.getBoard()
+                    + " (swarm " + rec.getSwarmSize() + "), not this level");
+            return false;
+        }
+        if (rec.getTablesHash() != SpawnTable.hash(mainScreen.getSpawnTables())) {
+            System.out.println("ERROR replay was recorded with different spawn tables than "
+                    + SpawnTable.FILE + " has now");
+            return false;
+        }
+        if (rec.getArenaWidth() != (int) mainScreen.getWidth()
+                || rec.getArenaHeight() != (int) mainScreen.getHeight()) {
+            System.out.println("ERROR replay was recorded on a " + rec.getArenaWidth() + "x"
+                    + rec.getArenaHeight() + " canvas and may not play back the same");
+        }
+        pendingReplay = rec;
+        return true;
+    }
+
+    // End of a session (loop stopped): save the live recording, or check a
+    // replay against the run it was recorded from
+    private void finishSession() {
+        if (recording != null) {
+            recording.finish(engine.getTickNo(), engine.getScore());
+            File file = new File(REPLAY_DIR, "last-" + engine.getLevelName() + ".rec");
+            try {
+                recording.save(file);
+            } catch (IOException e) {
+                System.out.println("ERROR saving recording: " + e.getMessage());
+            }
+            recording = null;
+            engine.setRecording(null);
+        }
+        if (replay != null) {
+            if (engine.isFinished()) {
+                int tickNo = engine.getTickNo();
+                int score = engine.getScore();
+                if (tickNo == replay.getEndTick() && score == replay.getFinalScore()) {
+                    System.out.println("Replay matched: score " + score + " at tick " + tickNo);
+                } else {
+                    System.out.println("ERROR replay diverged: score " + score + " at tick " + tickNo
+                            + ", recorded " + replay.getFinalScore() + " at tick " + replay.getEndTick());
+                }
+            }
+            replay = null;
+            engine.setReplay(null);
+        }
+    }
+    // Per-round objects (pause menu, game-over banner) live in the overlay layer
+    private void removeOverlays() {
+        layers.clear(RenderLayer.OVERLAY);
+    }
+
     // --------------------------------------------------------
-    // Build board + UI
+    // Build board + UI (retained: only runs on first show or resize)
     // --------------------------------------------------------
-    private void buildBoard() {
+    @Override
+    protected void buildScene() {
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
 
-        // Sky & ground
-        GRect sky = new GRect(0, 0, w, h * 0.6);
-        sky.setFilled(true);
-        sky.setFillColor(new Color(180, 210, 255));
-        sky.setColor(Color.BLACK);
-        contents.add(sky);
-        mainScreen.add(sky);
-
-        GRect ground = new GRect(0, h * 0.6, w, h * 0.4);
-        ground.setFilled(true);
-        ground.setFillColor(new Color(105, 180, 100));
-        ground.setColor(Color.BLACK);
-        contents.add(ground);
-        mainScreen.add(ground);
-
-        // Top bar
-        topBar = new GRect(0, 0, w, 60);
-        topBar.setFilled(true);
-        topBar.setFillColor(new Color(35, 35, 35));
-        topBar.setColor(Color.BLACK);
-        contents.add(topBar);
-        mainScreen.add(topBar);
-
-        // French-flag title bar
-        double flagW = 260;
-        double flagH = 32;
-        double flagX = (w - flagW) / 2.0;
-        double flagY = 14;
+        // fixed draw order: background < holes < rats < boss < HUD < overlays < cursor
+        layers.clearAll();
+        layers.addTo(scene);
+
+        // Static background (sky, ground, top bar, flag, board, holes) is
+        // composited once into a single image and only redrawn on resize
+        BoardLayout layout = layoutHoles(w, h);
+        if (boardLayerImage == null
+                || boardLayerImage.getWidth() != (int) w
+                || boardLayerImage.getHeight() != (int) h) {
+            boardLayerImage = renderBoardLayer(layout, w, h);
+        }
+        boardLayer = new GImage(boardLayerImage);
+        layers.add(RenderLayer.BACKGROUND, boardLayer);
 
-        Color blue = new Color(58, 91, 170);
-        Color white = new Color(245, 245, 245);
-        Color red = new Color(203, 58, 74);
+        // Boss level: dark backdrop over the board plus the phase banner
+        if (bossModeOnly) {
+            createBossBackdrop();
 
-        GRect stripeBlue = new GRect(flagX, flagY, flagW / 3.0, flagH);
-        stripeBlue.setFilled(true);
-        stripeBlue.setFillColor(blue);
-        stripeBlue.setColor(blue);
-        contents.add(stripeBlue);
-        mainScreen.add(stripeBlue);
-
-        GRect stripeWhite = new GRect(flagX + flagW / 3.0, flagY, flagW / 3.0, flagH);
-        stripeWhite.setFilled(true);
-        stripeWhite.setFillColor(white);
-        stripeWhite.setColor(white);
-        contents.add(stripeWhite);
-        mainScreen.add(stripeWhite);
-
-        GRect stripeRed = new GRect(flagX + 2 * flagW / 3.0, flagY, flagW / 3.0, flagH);
-        stripeRed.setFilled(true);
-        stripeRed.setFillColor(red);
-        stripeRed.setColor(red);
-        contents.add(stripeRed);
-        mainScreen.add(stripeRed);
-
-        GLabel title = new GLabel("WRECK-IT RATZ");
-        title.setFont(new Font("Monospaced", Font.BOLD, 20));
-        title.setColor(Color.BLACK);
-        title.setLocation((w - title.getWidth()) / 2.0, flagY + flagH * 0.7);
-        contents.add(title);
-        mainScreen.add(title);
+            phaseLabel = new GLabel("BOSS FIGHT!");
+            phaseLabel.setFont(new Font("SansSerif", Font.BOLD, 20));
+            phaseLabel.setColor(new Color(230, 230, 80));
+            phaseLabel.setLocation((w - phaseLabel.getWidth()) / 2.0, 85);
+            layers.add(RenderLayer.HUD, phaseLabel);
+        }
 
         // Timer
         timerLabel = new GLabel("03:00");
         timerLabel.setFont(new Font("Monospaced", Font.BOLD, 18));
         timerLabel.setColor(Color.WHITE);
         timerLabel.setLocation(20, 36);
-        contents.add(timerLabel);
-        mainScreen.add(timerLabel);
+        layers.add(RenderLayer.HUD, timerLabel);
 
         // Back
         backLabel = new GLabel("< BACK");
         backLabel.setFont(new Font("Monospaced", Font.BOLD, 16));
         backLabel.setColor(new Color(220, 220, 220));
         backLabel.setLocation(120, 36);
-        contents.add(backLabel);
-        mainScreen.add(backLabel);
+        layers.add(RenderLayer.HUD, backLabel);
 
         // Player HP bar (only added in boss mode)
         playerHpBack = new GRect(20, 50, 160, 10);
@@ -275,7 +358,7 @@ public class GamePane extends GraphicsPane {
 
         playerHpFill = new GRect(20, 50, 160, 10);
         playerHpFill.setFilled(true);
-        playerHpFill.setFillColor(new Color(60, 200, 80));
+        playerHpFill.setFillColor(HP_HIGH_COLOR);
         playerHpFill.setColor(Color.BLACK);
 
         playerHpLabel = new GLabel("HP");
@@ -284,12 +367,9 @@ public class GamePane extends GraphicsPane {
         playerHpLabel.setLocation(20, 48);
 
         if (bossModeOnly) {
-            contents.add(playerHpBack);
-            contents.add(playerHpFill);
-            contents.add(playerHpLabel);
-            mainScreen.add(playerHpBack);
-            mainScreen.add(playerHpFill);
-            mainScreen.add(playerHpLabel);
+            layers.add(RenderLayer.HUD, playerHpBack);
+            layers.add(RenderLayer.HUD, playerHpFill);
+            layers.add(RenderLayer.HUD, playerHpLabel);
         }
 
         // Boss HP bar (only added in boss mode)
@@ -309,96 +389,9 @@ public class GamePane extends GraphicsPane {
         bossHpLabel.setLocation(w / 2.0 - bossHpLabel.getWidth() / 2.0, 9);
 
         if (bossModeOnly) {
-            contents.add(bossHpBack);
-            contents.add(bossHpFill);
-            contents.add(bossHpLabel);
-            mainScreen.add(bossHpBack);
-            mainScreen.add(bossHpFill);
-            mainScreen.add(bossHpLabel);
-        }
-
-        // Board wood
-        double boardW = GRID_WIDTH + 80;
-        double boardH = GRID_HEIGHT + 80;
-        double boardX = (w - boardW) / 2.0;
-        double boardY = 120;
-
-        GRect boardOuter = new GRect(boardX, boardY, boardW, boardH);
-        boardOuter.setFilled(true);
-        boardOuter.setFillColor(new Color(130, 96, 60));
-        boardOuter.setColor(new Color(80, 55, 35));
-        contents.add(boardOuter);
-        mainScreen.add(boardOuter);
-
-        GRect boardInner = new GRect(boardX + 10, boardY + 10, boardW - 20, boardH - 20);
-        boardInner.setFilled(true);
-        boardInner.setFillColor(new Color(156, 120, 80));
-        boardInner.setColor(new Color(90, 65, 40));
-        contents.add(boardInner);
-        mainScreen.add(boardInner);
-
-        // wood grain
-        for (int i = 0; i < 6; i++) {
-            double lx = boardInner.getX() + 20 + i * (boardInner.getWidth() / 6.0);
-            GLine grain = new GLine(
-                    lx,
-                    boardInner.getY() + 5,
-                    lx,
-                    boardInner.getY() + boardInner.getHeight() - 5
-            );
-            grain.setColor(new Color(150, 115, 75));
-            contents.add(grain);
-            mainScreen.add(grain);
-        }
-
-        // Holes
-        double startX = boardX + (boardW - GRID_WIDTH) / 2.0;
-        double startY = boardY + (boardH - GRID_HEIGHT) / 2.0;
-        double cellW = GRID_WIDTH / (COLS - 1);
-        double cellH = GRID_HEIGHT / (ROWS - 1);
-
-        holes.clear();
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                double cx = startX + col * cellW;
-                double cy = startY + row * cellH;
-
-                GOval shadow = new GOval(cx - HOLE_RADIUS, cy - HOLE_RADIUS + 6,
-                        HOLE_RADIUS * 2, HOLE_RADIUS * 2);
-                shadow.setFilled(true);
-                shadow.setFillColor(new Color(45, 35, 25));
-                shadow.setColor(new Color(25, 18, 10));
-                contents.add(shadow);
-                mainScreen.add(shadow);
-
-                GOval rim = new GOval(cx - HOLE_RADIUS, cy - HOLE_RADIUS,
-                        HOLE_RADIUS * 2, HOLE_RADIUS * 2);
-                rim.setFilled(true);
-                rim.setFillColor(new Color(80, 55, 35));
-                rim.setColor(Color.BLACK);
-                contents.add(rim);
-                mainScreen.add(rim);
-
-                GOval inner = new GOval(cx - HOLE_RADIUS + 4, cy - HOLE_RADIUS + 4,
-                        HOLE_RADIUS * 2 - 8, HOLE_RADIUS * 2 - 8);
-                inner.setFilled(true);
-                inner.setFillColor(new Color(60, 42, 28));
-                inner.setColor(new Color(40, 28, 18));
-                contents.add(inner);
-                mainScreen.add(inner);
-
-                holes.add(new Hole(cx, cy));
-            }
-        }
-
-        // Darken background for boss mode
-        if (bossModeOnly) {
-            bossOverlay = new GRect(0, 0, w, h);
-            bossOverlay.setFilled(true);
-            bossOverlay.setFillColor(new Color(0, 0, 0, 90)); // semi-transparent
-            bossOverlay.setColor(new Color(0, 0, 0, 0));
-            contents.add(bossOverlay);
-            mainScreen.add(bossOverlay);
+            layers.add(RenderLayer.HUD, bossHpBack);
+            layers.add(RenderLayer.HUD, bossHpFill);
+            layers.add(RenderLayer.HUD, bossHpLabel);
         }
 
         // --- Power-up buttons along the bottom (higher) ---
@@ -409,15 +402,14 @@ public class GamePane extends GraphicsPane {
         double btnStartX = (w - totalBtnW) / 2.0;
         double btnY = h - 110;
 
-        Color btnColor = new Color(30, 30, 30);
+        Color btnColor = BUTTON_COLOR;
 
         // Freeze
         freezeButtonRect = new GRect(btnStartX, btnY, btnW, btnH);
         freezeButtonRect.setFilled(true);
         freezeButtonRect.setFillColor(btnColor);
         freezeButtonRect.setColor(Color.BLACK);
-        contents.add(freezeButtonRect);
-        mainScreen.add(freezeButtonRect);
+        layers.add(RenderLayer.HUD, freezeButtonRect);
 
         freezeLabel = new GLabel("FREEZE");
         freezeLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
@@ -426,8 +418,7 @@ public class GamePane extends GraphicsPane {
                 btnStartX + (btnW - freezeLabel.getWidth()) / 2.0,
                 btnY + btnH * 0.65
         );
-        contents.add(freezeLabel);
-        mainScreen.add(freezeLabel);
+        layers.add(RenderLayer.HUD, freezeLabel);
 
         // x2 Points
         double x2X = btnStartX + btnW + btnGap;
@@ -435,8 +426,7 @@ public class GamePane extends GraphicsPane {
         x2PointsButtonRect.setFilled(true);
         x2PointsButtonRect.setFillColor(btnColor);
         x2PointsButtonRect.setColor(Color.BLACK);
-        contents.add(x2PointsButtonRect);
-        mainScreen.add(x2PointsButtonRect);
+        layers.add(RenderLayer.HUD, x2PointsButtonRect);
 
         x2PointsLabel = new GLabel("x2 POINTS");
         x2PointsLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
@@ -445,8 +435,7 @@ public class GamePane extends GraphicsPane {
                 x2X + (btnW - x2PointsLabel.getWidth()) / 2.0,
                 btnY + btnH * 0.65
         );
-        contents.add(x2PointsLabel);
-        mainScreen.add(x2PointsLabel);
+        layers.add(RenderLayer.HUD, x2PointsLabel);
 
         // x2 Crit
         double critX = btnStartX + 2 * (btnW + btnGap);
@@ -454,8 +443,7 @@ public class GamePane extends GraphicsPane {
         x2CritButtonRect.setFilled(true);
         x2CritButtonRect.setFillColor(btnColor);
         x2CritButtonRect.setColor(Color.BLACK);
-        contents.add(x2CritButtonRect);
-        mainScreen.add(x2CritButtonRect);
+        layers.add(RenderLayer.HUD, x2CritButtonRect);
 
         x2CritLabel = new GLabel("x2 CRIT");
         x2CritLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
@@ -464,16 +452,14 @@ public class GamePane extends GraphicsPane {
                 critX + (btnW - x2CritLabel.getWidth()) / 2.0,
                 btnY + btnH * 0.65
         );
-        contents.add(x2CritLabel);
-        mainScreen.add(x2CritLabel);
+        layers.add(RenderLayer.HUD, x2CritLabel);
 
         // Status message on the right
         powerupStatusLabel = new GLabel("");
         powerupStatusLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
         powerupStatusLabel.setColor(Color.WHITE);
         powerupStatusLabel.setLocation(w - 260, btnY - 8);
-        contents.add(powerupStatusLabel);
-        mainScreen.add(powerupStatusLabel);
+        layers.add(RenderLayer.HUD, powerupStatusLabel);
 
         // Hammer – using custom cursor now, so commented out
         // GOval hammerShape = new GOval(0, 0, 40, 40);
@@ -481,214 +467,379 @@ public class GamePane extends GraphicsPane {
         // hammerShape.setFillColor(new Color(230, 70, 70));
         // hammerShape.setColor(Color.BLACK);
         // hammer = hammerShape;
-        // contents.add(hammer);
-        // mainScreen.add(hammer);
+        // layers.add(RenderLayer.CURSOR, hammer);
+
+        indexHud(w, h);
     }
 
-    private void setupTimer() {
-        timer = new Timer(TICK_MS, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                tick(TICK_MS);
-            }
-        });
+    // Click targets for the HUD, in draw order: the top bar first, so any
+    // HUD object drawn over it wins (same answer getElementAt would give)
+    private void indexHud(double w, double h) {
+        hudGrid = new SpatialGrid<>(w, h, HUD_GRID_CELL);
+        hudGrid.insert(boardLayer, 0, 0, w, TOP_BAR_HEIGHT);
+
+        GCompound hud = layers.get(RenderLayer.HUD);
+        for (int i = 0; i < hud.getElementCount(); i++) {
+            GObject obj = hud.getElement(i);
+            GRectangle b = obj.getBounds();
+            hudGrid.insert(obj, b.getX(), b.getY(), b.getWidth(), b.getHeight());
+        }
     }
 
-    // --------------------------------------------------------
-    // Game loop
-    // --------------------------------------------------------
-    private void tick(int deltaMs) {
-        if (paused) return;
+    // Hole centers for the board at this canvas size. Only runs with no
+    // rats out (showContent has released them), so the engine may replace
+    // its rats if the hole size changed.
+    private BoardLayout layoutHoles(double w, double h) {
+        engine.setArena(w, h);
+        ratNodes.clear();  // the rats may be new ones, and the layers are rebuilt
+        return engine.getLayout();
+    }
+    // Draws everything that never changes during a round into one image
+    private BufferedImage renderBoardLayer(BoardLayout layout, double w, double h) {
+        BufferedImage img = new BufferedImage((int) w, (int) h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        // update power-up timers
-        updatePowerups(deltaMs);
+        // Sky & ground
+        drawRect(g, 0, 0, w, h * 0.6, new Color(180, 210, 255), Color.BLACK);
+        drawRect(g, 0, h * 0.6, w, h * 0.4, new Color(105, 180, 100), Color.BLACK);
 
-        // scaled time for rats / boss (freeze slows these down a lot)
-        double timeScale = freezeActive ? 0.3 : 1.0;
-        int scaledDelta = (int) Math.max(1, Math.round(deltaMs * timeScale));
+        // Top bar
+        drawRect(g, 0, 0, w, TOP_BAR_HEIGHT, new Color(35, 35, 35), Color.BLACK);
 
-        // global game timer is NOT slowed by freeze
-        if (timeRemainingMs > 0) {
-            timeRemainingMs -= deltaMs;
-            if (timeRemainingMs <= 0) {
-                timeRemainingMs = 0;
-                onTimeExpired();
-            }
-            updateTimerLabel();
+        // French-flag title bar
+        double flagW = 260;
+        double flagH = 32;
+        double flagX = (w - flagW) / 2.0;
+        double flagY = 14;
+
+        Color blue = new Color(58, 91, 170);
+        Color white = new Color(245, 245, 245);
+        Color red = new Color(203, 58, 74);
+
+        drawRect(g, flagX, flagY, flagW / 3.0, flagH, blue, blue);
+        drawRect(g, flagX + flagW / 3.0, flagY, flagW / 3.0, flagH, white, white);
+        drawRect(g, flagX + 2 * flagW / 3.0, flagY, flagW / 3.0, flagH, red, red);
+
+        Font titleFont = new Font("Monospaced", Font.BOLD, 20);
+        g.setFont(titleFont);
+        g.setColor(Color.BLACK);
+        String title = "WRECK-IT RATZ";
+        double titleW = g.getFontMetrics().stringWidth(title);
+        g.drawString(title, (float) ((w - titleW) / 2.0), (float) (flagY + flagH * 0.7));
+
+        // Board wood
+        double boardW = layout.getBoardWidth();
+        double boardH = layout.getBoardHeight();
+        double boardX = layout.getBoardX();
+        double boardY = layout.getBoardY();
+
+        drawRect(g, boardX, boardY, boardW, boardH, new Color(130, 96, 60), new Color(80, 55, 35));
+
+        double innerX = boardX + 10;
+        double innerY = boardY + 10;
+        double innerW = boardW - 20;
+        double innerH = boardH - 20;
+        drawRect(g, innerX, innerY, innerW, innerH, new Color(156, 120, 80), new Color(90, 65, 40));
+
+        // wood grain
+        g.setColor(new Color(150, 115, 75));
+        for (int i = 0; i < 6; i++) {
+            double lx = innerX + 20 + i * (innerW / 6.0);
+            g.draw(new Line2D.Double(lx, innerY + 5, lx, innerY + innerH - 5));
         }
 
-        // rat lifetimes
-        for (Ratdg r : activeRats) {
-            r.onTick(scaledDelta);
+        // Holes (shadow offset and rim scale with the hole size)
+        double r = layout.getHoleRadius();
+        double shadow = 6 * layout.getScale();
+        double rim = 4 * layout.getScale();
+        for (Hole hole : engine.getHoles()) {
+            double cx = hole.getX();
+            double cy = hole.getY();
+            drawOval(g, cx - r, cy - r + shadow, r * 2, r * 2,
+                    new Color(45, 35, 25), new Color(25, 18, 10));
+            drawOval(g, cx - r, cy - r, r * 2, r * 2,
+                    new Color(80, 55, 35), Color.BLACK);
+            drawOval(g, cx - r + rim, cy - r + rim, r * 2 - 2 * rim, r * 2 - 2 * rim,
+                    new Color(60, 42, 28), new Color(40, 28, 18));
         }
-        activeRats.removeIf(r -> !r.isActive());
 
-        // Only spawn rats in level 1
-        double spawnScale = freezeActive ? 0.3 : 1.0; // fewer spawns while frozen
-        if (!bossModeOnly && phase == Phase.NORMAL && timeRemainingMs > 0) {
-            maybeSpawn(spawnScale);
+        // Darken background for boss mode
+        if (bossModeOnly) {
+            g.setColor(new Color(0, 0, 0, 90)); // semi-transparent
+            g.fill(new Rectangle2D.Double(0, 0, w, h));
         }
 
-        // boss logic (attacks + movement)
-        if (phase == Phase.BOSS && bossRat != null && bossRat.isVisible()) {
-            bossAttackTimerMs += scaledDelta;
-            if (bossAttackTimerMs >= BOSS_ATTACK_INTERVAL_MS) {
-                bossAttackTimerMs = 0;
-                playerHp -= BOSS_ATTACK_DAMAGE;
-                if (playerHp < 0) playerHp = 0;
-                updatePlayerHpBar();
-                if (playerHp == 0) {
-                    phase = Phase.FINISHED;
-                    if (!scoreRecorded) {
-                        scoreRecorded = true;
-                        int savedScore = bossModeOnly ? mainScreen.getPreBossScore()
-                                                      : mainScreen.getScore();
-                        mainScreen.recordScore(savedScore);
-                    }
-                    showGameOverOverlay("YOU WERE WRECKED!");
-                }
+        g.dispose();
+        return img;
+    }
+
+    private static void drawRect(Graphics2D g, double x, double y, double w, double h,
+                                 Color fill, Color outline) {
+        Rectangle2D r = new Rectangle2D.Double(x, y, w, h);
+        g.setColor(fill);
+        g.fill(r);
+        g.setColor(outline);
+        g.draw(r);
+    }
+
+    private static void drawOval(Graphics2D g, double x, double y, double w, double h,
+                                 Color fill, Color outline) {
+        Ellipse2D o = new Ellipse2D.Double(x, y, w, h);
+        g.setColor(fill);
+        g.fill(o);
+        g.setColor(outline);
+        g.draw(o);
+    }
+
+    // Simulation advances in fixed steps (rate from the settings) on the
+    // loop's own thread; the EDT renders the latest snapshot once per
+    // display frame. Neither side ever waits for the other.
+    private void setupGameLoop() {
+        gameLoop = new GameLoop(new GameLoop.Callbacks() {
+            @Override
+            public void step(int stepMs) {
+                link.step(gameLoop.getSimTimeNanos(), stepMs);
             }
 
-            moveBoss(scaledDelta);   // <--- NEW: boss movement
-        }
+            @Override
+            public void render() {
+                renderFrame();
+            }
+        }, GameEngine.TICK_MS);
     }
 
-    // Move boss & bounce inside a central rectangle
-    private void moveBoss(int deltaMs) {
-        if (bossRat == null) return;
+    // --------------------------------------------------------
+    // Rendering (EDT only)
+    // --------------------------------------------------------
 
-        double w = mainScreen.getWidth();
-        double h = mainScreen.getHeight();
+    // Draw the latest snapshot, interpolating moving sprites between its
+    // previous and current step, then repaint whatever changed
+    private void renderFrame() {
+        Snapshot snap = link.take();
+        if (snap.seq == 0) return;
+
+        double alpha = GameLoop.alpha(snap.simTimeNanos, snap.stepMs);
+        drawRats(snap, alpha);
+        if (engine.getSwarm() != null) drawSwarm(snap, alpha);
 
-        // movement based on velocity (px per ms)
-        bossX += bossVX * deltaMs;
-        bossY += bossVY * deltaMs;
-
-        // bounds for movement (stay inside dark area)
-        double marginX = 120;
-        double marginTop = 130;
-        double marginBottom = 120;
-
-        // bounce horizontally
-        if (bossX < marginX) {
-            bossX = marginX;
-            bossVX = -bossVX;
-        } else if (bossX > w - marginX) {
-            bossX = w - marginX;
-            bossVX = -bossVX;
+        if (hammer != null) {
+            double hx = hammerX - hammer.getWidth() / 2.0;
+            double hy = hammerY - hammer.getHeight() / 2.0;
+            if (hx != hammer.getX() || hy != hammer.getY()) {
+                markDirty(hammer);
+                hammer.setLocation(hx, hy);
+                markDirty(hammer);
+            }
         }
 
-        // bounce vertically
-        if (bossY < marginTop) {
-            bossY = marginTop;
-            bossVY = -bossVY;
-        } else if (bossY > h - marginBottom) {
-            bossY = h - marginBottom;
-            bossVY = -bossVY;
+        if (snap.seq != drawnSeq) {
+            drawnSeq = snap.seq;
+            drawHud(snap);
         }
+        mainScreen.getRepaintTracker().flush();
 
-        bossRat.setPosition(bossX, bossY);
+        if (!roundOver) {
+            if (snap.levelComplete) {
+                endLevel(snap);
+            } else if (snap.endText != null) {
+                endRound(snap.endText);
+            }
+        }
     }
 
-    // power-up timer / cooldown logic
-    private void updatePowerups(int deltaMs) {
-        // Freeze
-        if (freezeActive) {
-            freezeRemainingMs -= deltaMs;
-            if (freezeRemainingMs <= 0) {
-                freezeRemainingMs = 0;
-                freezeActive = false;
+    private void drawRats(Snapshot snap, double alpha) {
+        frameNo++;
+        for (int i = 0; i < snap.ratCount; i++) {
+            Ratdg r = snap.rats[i];
+            RatNode node = ratNodes.get(r);
+            if (node == null) {
+                node = new RatNode(r, layers.get(r.getType() == RatType.BOSS
+                        ? RenderLayer.BOSS : RenderLayer.RATS), mainScreen.getRepaintTracker());
+                ratNodes.put(r, node);
             }
-        }
-        if (freezeCooldownRemainingMs > 0) {
-            freezeCooldownRemainingMs -= deltaMs;
-            if (freezeCooldownRemainingMs <= 0) {
-                freezeCooldownRemainingMs = 0;
+            double age = snap.prevAge[i] + (snap.age[i] - snap.prevAge[i]) * alpha;
+            node.drawAt(snap.prevX[i] + (snap.x[i] - snap.prevX[i]) * alpha,
+                        snap.prevY[i] + (snap.y[i] - snap.prevY[i]) * alpha + r.popOffset(age));
+            if (!node.isShown()) {
+                node.attach();
+                drawnNodes.add(node);
             }
+            node.drawnFrame = frameNo;
         }
 
-        // x2 points
-        if (doublePointsActive) {
-            doublePointsRemainingMs -= deltaMs;
-            if (doublePointsRemainingMs <= 0) {
-                doublePointsRemainingMs = 0;
-                doublePointsActive = false;
+        // rats missing from this snapshot have despawned
+        for (int i = drawnNodes.size() - 1; i >= 0; i--) {
+            RatNode node = drawnNodes.get(i);
+            if (node.drawnFrame != frameNo) {
+                node.detach();
+                drawnNodes.remove(i);
             }
         }
-        if (doublePointsCooldownRemainingMs > 0) {
-            doublePointsCooldownRemainingMs -= deltaMs;
-            if (doublePointsCooldownRemainingMs <= 0) {
-                doublePointsCooldownRemainingMs = 0;
-            }
+    }
+
+    // Swarm rats are image proxies placed straight from the snapshot's
+    // arrays; proxies past the living count are hidden, never removed.
+    // Hundreds of small rects would overflow the repaint tracker, so the box
+    // around the whole swarm is repainted, as last drawn and as drawn now.
+    private void drawSwarm(Snapshot snap, double alpha) {
+        int n = snap.swarmCount;
+        if (n == 0 && shownSwarm == 0) return;
+
+        GCompound layer = layers.get(RenderLayer.BOSS);
+        while (swarmProxies.size() < n) {
+            GObject proxy = createSwarmProxy();
+            layer.add(proxy);
+            swarmProxies.add(proxy);
         }
 
-        // x2 crit
-        if (critActive) {
-            critRemainingMs -= deltaMs;
-            if (critRemainingMs <= 0) {
-                critRemainingMs = 0;
-                critActive = false;
-            }
+        double size = GameEngine.SWARM_SPRITE_SIZE;
+        double half = size / 2.0;
+        double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE;
+        double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            GObject proxy = swarmProxies.get(i);
+            double x = snap.swarmPrevX[i] + (snap.swarmX[i] - snap.swarmPrevX[i]) * alpha - half;
+            double y = snap.swarmPrevY[i] + (snap.swarmY[i] - snap.swarmPrevY[i]) * alpha - half;
+            proxy.setLocation(x, y);
+            if (i >= shownSwarm) proxy.setVisible(true);
+            if (x < x0) x0 = x;
+            if (y < y0) y0 = y;
+            if (x > x1) x1 = x;
+            if (y > y1) y1 = y;
         }
-        if (critCooldownRemainingMs > 0) {
-            critCooldownRemainingMs -= deltaMs;
-            if (critCooldownRemainingMs <= 0) {
-                critCooldownRemainingMs = 0;
-            }
+        for (int i = n; i < shownSwarm; i++) {
+            swarmProxies.get(i).setVisible(false);
         }
 
-        updatePowerupButtonVisuals();
+        if (shownSwarm > 0) markDirty(swarmX0, swarmY0, swarmX1 - swarmX0, swarmY1 - swarmY0);
+        shownSwarm = n;
+        if (n > 0) {
+            swarmX0 = x0;
+            swarmY0 = y0;
+            swarmX1 = x1 + size;
+            swarmY1 = y1 + size;
+            markDirty(swarmX0, swarmY0, swarmX1 - swarmX0, swarmY1 - swarmY0);
+        }
     }
 
-    private void resetPowerups() {
-        freezeActive = false;
-        freezeRemainingMs = 0;
-        freezeCooldownRemainingMs = 0;
-
-        doublePointsActive = false;
-        doublePointsRemainingMs = 0;
-        doublePointsCooldownRemainingMs = 0;
-
-        critActive = false;
-        critRemainingMs = 0;
-        critCooldownRemainingMs = 0;
+    private GObject createSwarmProxy() {
+        try {
+            // one shared pre-scaled image for every proxy
+            return new GImage(SpriteCache.get("rat_boss.png", GameEngine.SWARM_SPRITE_SIZE, GameEngine.SWARM_SPRITE_SIZE));
+        } catch (Exception ex) {
+            GOval fallback = new GOval(GameEngine.SWARM_SPRITE_SIZE, GameEngine.SWARM_SPRITE_SIZE);
+            fallback.setFilled(true);
+            fallback.setFillColor(new Color(160, 160, 160));
+            fallback.setColor(Color.BLACK);
+            return fallback;
+        }
+    }
 
-        if (powerupStatusLabel != null) {
-            powerupStatusLabel.setLabel("");
+    private void hideSwarmProxies() {
+        for (int i = 0; i < shownSwarm; i++) {
+            swarmProxies.get(i).setVisible(false);
         }
-        updatePowerupButtonVisuals();
+        shownSwarm = 0;
     }
 
-    private void updatePowerupButtonVisuals() {
-        Color activeOrCd = new Color(80, 80, 80);
-        Color normal = new Color(30, 30, 30);
+    private void detachAllRatNodes() {
+        for (int i = 0; i < drawnNodes.size(); i++) {
+            drawnNodes.get(i).detach();
+        }
+        drawnNodes.clear();
+    }
 
-        if (freezeButtonRect != null) {
-            freezeButtonRect.setFillColor(
-                    (freezeActive || freezeCooldownRemainingMs > 0) ? activeOrCd : normal
-            );
+    // HUD only changes when the simulation state it shows has changed
+    private void drawHud(Snapshot snap) {
+        updateTimerLabel(snap.timeRemainingMs);
+        if (snap.playerHp != shownPlayerHp) {
+            shownPlayerHp = snap.playerHp;
+            updatePlayerHpBar(snap.playerHp);
+        }
+        if (snap.bossHp != shownBossHp) {
+            shownBossHp = snap.bossHp;
+            updateBossHpBar(snap.bossHp);
         }
-        if (x2PointsButtonRect != null) {
-            x2PointsButtonRect.setFillColor(
-                    (doublePointsActive || doublePointsCooldownRemainingMs > 0) ? activeOrCd : normal
-            );
+        if (snap.score != mainScreen.getScore()) {
+            mainScreen.setScore(snap.score);
         }
-        if (x2CritButtonRect != null) {
-            x2CritButtonRect.setFillColor(
-                    (critActive || critCooldownRemainingMs > 0) ? activeOrCd : normal
-            );
+        updatePowerupButtonVisuals(snap);
+        if (snap.cooldownNotices != shownCooldownNotices) {
+            shownCooldownNotices = snap.cooldownNotices;
+            showCooldownMessage();
+        }
+    }
+
+    // End of level 1: go on to the boss screen
+    private void endLevel(Snapshot snap) {
+        if (replay != null) {
+            endRound("REPLAY OVER");  // a replay covers one level only
+            return;
+        }
+        roundOver = true;
+        gameLoop.stop();
+        finishSession();
+
+        // store score BEFORE boss
+        mainScreen.setPreBossScore(snap.score);
+        mainScreen.switchToBossScreen();
+    }
+
+    private void endRound(String text) {
+        roundOver = true;
+        gameLoop.stop();
+        if (replay != null) scoreRecorded = true;  // replays don't reach the leaderboard
+        finishSession();
+        if (!scoreRecorded) {
+            scoreRecorded = true;
+            int savedScore = bossModeOnly ? mainScreen.getPreBossScore()
+                                          : mainScreen.getScore();
+            mainScreen.recordScore(savedScore);
         }
+        showGameOverOverlay(text);
+    }
+
+    private void updatePowerupButtonVisuals(Snapshot snap) {
+        setButtonFill(freezeButtonRect, snap.freezeBusy ? BUTTON_BUSY_COLOR : BUTTON_COLOR);
+        setButtonFill(x2PointsButtonRect, snap.doublePointsBusy ? BUTTON_BUSY_COLOR : BUTTON_COLOR);
+        setButtonFill(x2CritButtonRect, snap.critBusy ? BUTTON_BUSY_COLOR : BUTTON_COLOR);
+    }
+
+    // only repaint a button when its color actually changes
+    private void setButtonFill(GRect button, Color color) {
+        if (button == null || color.equals(button.getFillColor())) return;
+        button.setFillColor(color);
+        markDirty(button);
+    }
+
+    private void setStatusText(String text) {
+        markDirty(powerupStatusLabel);
+        powerupStatusLabel.setLabel(text);
+        markDirty(powerupStatusLabel);
+    }
+
+    private void markDirty(GObject obj) {
+        mainScreen.getRepaintTracker().markDirty(obj);
+    }
+
+    private void markDirty(double x, double y, double w, double h) {
+        mainScreen.getRepaintTracker().markDirty(x, y, w, h);
+    }
+
+    private void markAllDirty() {
+        mainScreen.getRepaintTracker().markAllDirty();
     }
 
     private void showCooldownMessage() {
         if (powerupStatusLabel == null) return;
 
-        powerupStatusLabel.setLabel("powerup cooling wait 10s");
+        setStatusText("powerup cooling wait 10s");
 
         Timer t = new Timer(1500, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                powerupStatusLabel.setLabel("");
+                setStatusText("");
                 ((Timer) e.getSource()).stop();
             }
         });
@@ -696,28 +847,17 @@ public class GamePane extends GraphicsPane {
         t.start();
     }
 
-    // bring power-up UI in front of boss backdrop (for boss level)
-    private void bringPowerupsToFront() {
-        if (freezeButtonRect != null) freezeButtonRect.sendToFront();
-        if (x2PointsButtonRect != null) x2PointsButtonRect.sendToFront();
-        if (x2CritButtonRect != null) x2CritButtonRect.sendToFront();
-        if (freezeLabel != null) freezeLabel.sendToFront();
-        if (x2PointsLabel != null) x2PointsLabel.sendToFront();
-        if (x2CritLabel != null) x2CritLabel.sendToFront();
-        if (powerupStatusLabel != null) powerupStatusLabel.sendToFront();
-    }
-
     private void createBossBackdrop() {
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
 
-        try {
-            // Use your boss background image
-            GImage img = new GImage("boss_background.png");
+        // Use your boss background image
+        GImage img = mainScreen.getAssets().createImage("boss_background.png");
+        if (img != null) {
             img.setSize(w, h - 60); // below the top bar
             img.setLocation(0, 60);
             bossBackdrop = img;
-        } catch (Exception ex) {
+        } else {
             // Fallback if image not found
             GRect dark = new GRect(0, 60, w, h - 60);
             dark.setFilled(true);
@@ -730,151 +870,49 @@ public class GamePane extends GraphicsPane {
             frame.setFilled(true);
             frame.setFillColor(new Color(90, 60, 40));
             frame.setColor(Color.BLACK);
-            contents.add(frame);
-            mainScreen.add(frame);
-        }
-
-        contents.add(bossBackdrop);
-        mainScreen.add(bossBackdrop);
-
-        // Make sure top UI stays in front
-        if (topBar != null) topBar.sendToFront();
-        if (timerLabel != null) timerLabel.sendToFront();
-        if (backLabel != null) backLabel.sendToFront();
-
-        if (playerHpBack != null) {
-            playerHpBack.sendToFront();
-            playerHpFill.sendToFront();
-            playerHpLabel.sendToFront();
-        }
-        if (bossHpBack != null) {
-            bossHpBack.sendToFront();
-            bossHpFill.sendToFront();
-            bossHpLabel.sendToFront();
+            layers.add(RenderLayer.BACKGROUND, frame);
         }
 
-        bringPowerupsToFront();
-    }
-
-
-    private void onTimeExpired() {
-        if (phase == Phase.NORMAL) {
-            // END OF LEVEL 1 → go to boss screen
-            phase = Phase.FINISHED;
-            if (timer != null) timer.stop();
-
-            // store score BEFORE boss
-            mainScreen.setPreBossScore(mainScreen.getScore());
-
-            mainScreen.switchToBossScreen();
-        } else if (phase == Phase.BOSS) {
-            phase = Phase.FINISHED;
-            if (!scoreRecorded) {
-                scoreRecorded = true;
-                int savedScore = bossModeOnly ? mainScreen.getPreBossScore()
-                                              : mainScreen.getScore();
-                mainScreen.recordScore(savedScore);
-            }
-            showGameOverOverlay("BOSS ESCAPED!");
-        }
+        // background layer, so the HUD is always in front of it
+        layers.add(RenderLayer.BACKGROUND, bossBackdrop);
     }
 
-    private void startBossPhase() {
-        phase = Phase.BOSS;
-        timeRemainingMs = BOSS_DURATION_MS;
-        updateTimerLabel();
 
-        // Clear all normal rats
-        for (Ratdg r : activeRats) {
-            r.despawn();
-        }
-        activeRats.clear();
-
-        // Create dark / classroom boss background
-        createBossBackdrop();
-
-        double w = mainScreen.getWidth();
-
-        // "BOSS FIGHT" label
-        phaseLabel = new GLabel("BOSS FIGHT!");
-        phaseLabel.setFont(new Font("SansSerif", Font.BOLD, 20));
-        phaseLabel.setColor(new Color(230, 230, 80));
-        phaseLabel.setLocation((w - phaseLabel.getWidth()) / 2.0, 85);
-        contents.add(phaseLabel);
-        mainScreen.add(phaseLabel);
-
-        // Spawn boss in the center
-        double centerX = w / 2.0;
-        double centerY = 120 + 200;
-        bossRat = new BossRat(mainScreen);
-        activeRats.add(bossRat);
-        Hole temp = new Hole(centerX, centerY);
-        temp.spawn(bossRat);
-
-        // init movement position
-        bossX = centerX;
-        bossY = centerY;
-        // (bossVX, bossVY already set with defaults)
-
-        bossHp = BOSS_MAX_HP;
-        bossAttackTimerMs = 0;
-        updateBossHpBar();
-    }
-
-    private void updateTimerLabel() {
+    // The label only shows whole seconds, so it only changes when those do
+    private void updateTimerLabel(int timeRemainingMs) {
         int totalSeconds = timeRemainingMs / 1000;
-        int minutes = totalSeconds / 60;
-        int seconds = totalSeconds % 60;
-        timerLabel.setLabel(String.format("%02d:%02d", minutes, seconds));
+        if (totalSeconds == shownSeconds) return;
+        shownSeconds = totalSeconds;
+        String text = totalSeconds < TIMER_TEXT.length ? TIMER_TEXT[totalSeconds]
+                : String.format("%02d:%02d", totalSeconds / 60, totalSeconds % 60);
+        markDirty(timerLabel);
+        timerLabel.setLabel(text);
+        markDirty(timerLabel);
     }
 
-    private void updatePlayerHpBar() {
+    private void updatePlayerHpBar(int playerHp) {
         if (playerHpFill == null) return;
-        double ratio = playerHp / (double) PLAYER_MAX_HP;
+        double ratio = playerHp / (double) GameEngine.PLAYER_MAX_HP;
         double fullWidth = 160;
+        markDirty(playerHpBack);
         playerHpFill.setSize(fullWidth * ratio, playerHpFill.getHeight());
 
-        if (ratio > 0.6) playerHpFill.setFillColor(new Color(60, 200, 80));
-        else if (ratio > 0.3) playerHpFill.setFillColor(new Color(230, 190, 60));
-        else playerHpFill.setFillColor(new Color(220, 60, 60));
+        if (ratio > 0.6) playerHpFill.setFillColor(HP_HIGH_COLOR);
+        else if (ratio > 0.3) playerHpFill.setFillColor(HP_MID_COLOR);
+        else playerHpFill.setFillColor(HP_LOW_COLOR);
     }
 
-    private void updateBossHpBar() {
+    private void updateBossHpBar(int bossHp) {
         if (bossHpFill == null) return;
-        double ratio = bossHp / (double) BOSS_MAX_HP;
+        double ratio = bossHp / (double) engine.getBossMaxHp();
         double fullWidth = 360;
+        markDirty(bossHpBack);
         bossHpFill.setSize(fullWidth * ratio, bossHpFill.getHeight());
     }
 
-    private void maybeSpawn(double spawnScale) {
-        int visible = 0;
-        for (Hole h : holes) {
-            if (h.isOccupied()) visible++;
-        }
-        if (visible >= MAX_ACTIVE_RATS) return;
-
-        if (rng.nextDouble() > SPAWN_CHANCE * spawnScale) return;
-
-        List<Hole> empty = new ArrayList<>();
-        for (Hole h : holes) {
-            if (!h.isOccupied()) empty.add(h);
-        }
-        if (empty.isEmpty()) return;
-
-        Hole hole = empty.get(rng.nextInt(empty.size()));
-
-        Ratdg rat;
-        double p = rng.nextDouble();
-        if (p < 0.65) rat = new NormalRat(mainScreen);
-        else if (p < 0.9) rat = new BonusRat(mainScreen);
-        else rat = new TrapRat(mainScreen);
-
-        activeRats.add(rat);
-        hole.spawn(rat);
-    }
 
     private void showGameOverOverlay(String text) {
-        if (timer != null) timer.stop();
+        markAllDirty();
 
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
@@ -894,14 +932,8 @@ public class GamePane extends GraphicsPane {
         shadow.setFillColor(new Color(0, 0, 0, 180));
         shadow.setColor(Color.BLACK);
 
-        contents.add(shadow);
-        contents.add(gameOverLabel);
-        mainScreen.add(shadow);
-        mainScreen.add(gameOverLabel);
-
-        shadow.sendToFront();
-        gameOverLabel.sendToFront();
-        if (hammer != null) hammer.sendToFront();
+        layers.add(RenderLayer.OVERLAY, shadow);
+        layers.add(RenderLayer.OVERLAY, gameOverLabel);
 
         // Auto-return to main menu after 2 seconds
         new Timer(2000, new ActionListener() {
@@ -917,14 +949,16 @@ public class GamePane extends GraphicsPane {
     // Pause menu
     // --------------------------------------------------------
     private void togglePause() {
-        if (phase == Phase.FINISHED) return;
+        if (roundOver) return;
         if (paused) hidePauseMenu(); else showPauseMenu();
     }
 
     private void showPauseMenu() {
         if (paused) return;
         paused = true;
-        if (timer != null) timer.stop();
+        gameLoop.stop();
+        engine.mark(InputRecording.PAUSE);
+        markAllDirty();
 
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
@@ -933,8 +967,7 @@ public class GamePane extends GraphicsPane {
         pauseOverlay.setFilled(true);
         pauseOverlay.setFillColor(new Color(0, 0, 0, 120));
         pauseOverlay.setColor(new Color(0, 0, 0, 0));
-        contents.add(pauseOverlay);
-        mainScreen.add(pauseOverlay);
+        layers.add(RenderLayer.OVERLAY, pauseOverlay);
 
         double panelW = 320;
         double panelH = 230;
@@ -945,8 +978,7 @@ public class GamePane extends GraphicsPane {
         pausePanel.setFilled(true);
         pausePanel.setFillColor(new Color(245, 245, 245));
         pausePanel.setColor(new Color(60, 60, 60));
-        contents.add(pausePanel);
-        mainScreen.add(pausePanel);
+        layers.add(RenderLayer.OVERLAY, pausePanel);
 
         pauseTitleLabel = new GLabel("PAUSED");
         pauseTitleLabel.setFont(new Font("SansSerif", Font.BOLD, 22));
@@ -955,8 +987,7 @@ public class GamePane extends GraphicsPane {
                 panelX + (panelW - pauseTitleLabel.getWidth()) / 2.0,
                 panelY + 40
         );
-        contents.add(pauseTitleLabel);
-        mainScreen.add(pauseTitleLabel);
+        layers.add(RenderLayer.OVERLAY, pauseTitleLabel);
 
         int btnW = 200;
         int btnH = 40;
@@ -972,8 +1003,6 @@ public class GamePane extends GraphicsPane {
 
         exitButtonRect = createPauseButton(btnX, firstY + 2 * (btnH + gap), btnW, btnH);
         exitLabel = createPauseLabel("EXIT TO MENU", exitButtonRect);
-
-        bringPauseToFront();
     }
 
     private GRect createPauseButton(double x, double y, double w, double h) {
@@ -981,8 +1010,7 @@ public class GamePane extends GraphicsPane {
         r.setFilled(true);
         r.setFillColor(new Color(230, 230, 230));
         r.setColor(new Color(90, 90, 90));
-        contents.add(r);
-        mainScreen.add(r);
+        layers.add(RenderLayer.OVERLAY, r);
         return r;
     }
 
@@ -994,27 +1022,14 @@ public class GamePane extends GraphicsPane {
                 buttonRect.getX() + (buttonRect.getWidth() - lbl.getWidth()) / 2.0,
                 buttonRect.getY() + buttonRect.getHeight() * 0.65
         );
-        contents.add(lbl);
-        mainScreen.add(lbl);
+        layers.add(RenderLayer.OVERLAY, lbl);
         return lbl;
     }
 
-    private void bringPauseToFront() {
-        if (pauseOverlay != null) pauseOverlay.sendToFront();
-        if (pausePanel != null) pausePanel.sendToFront();
-        if (pauseTitleLabel != null) pauseTitleLabel.sendToFront();
-        if (resumeButtonRect != null) resumeButtonRect.sendToFront();
-        if (settingsButtonRect != null) settingsButtonRect.sendToFront();
-        if (exitButtonRect != null) exitButtonRect.sendToFront();
-        if (resumeLabel != null) resumeLabel.sendToFront();
-        if (settingsLabel != null) settingsLabel.sendToFront();
-        if (exitLabel != null) exitLabel.sendToFront();
-        if (hammer != null) hammer.sendToFront();
-    }
-
     private void hidePauseMenu() {
         if (!paused) return;
         paused = false;
+        markAllDirty();
 
         removeIfNotNull(pauseOverlay);
         removeIfNotNull(pausePanel);
@@ -1031,13 +1046,15 @@ public class GamePane extends GraphicsPane {
         resumeLabel = settingsLabel = exitLabel = null;
         pauseTitleLabel = null;
 
-        if (phase != Phase.FINISHED && timer != null) timer.start();
+        if (!roundOver) {
+            engine.mark(InputRecording.RESUME);
+            gameLoop.start();
+        }
     }
 
     private void removeIfNotNull(GObject obj) {
         if (obj == null) return;
-        mainScreen.remove(obj);
-        contents.remove(obj);
+        layers.remove(RenderLayer.OVERLAY, obj);
     }
 
     private void handlePauseClick(double x, double y) {
@@ -1047,7 +1064,7 @@ public class GamePane extends GraphicsPane {
             return;
         }
 
-        GObject clicked = mainScreen.getElementAt(x, y);
+        GObject clicked = getElementAt(x, y);
         if (clicked == null) return;
 
         if (clicked == resumeButtonRect || clicked == resumeLabel) {
@@ -1070,12 +1087,9 @@ public class GamePane extends GraphicsPane {
     @Override
     public void mouseMoved(MouseEvent e) {
         if (paused) return;
-        if (hammer != null) {
-            double hw = hammer.getWidth();
-            double hh = hammer.getHeight();
-            hammer.setLocation(e.getX() - hw / 2.0, e.getY() - hh / 2.0);
-            hammer.sendToFront();
-        }
+        // the hammer is moved on the next render, at most once per frame
+        hammerX = e.getX();
+        hammerY = e.getY();
     }
 
     @Override
@@ -1091,66 +1105,36 @@ public class GamePane extends GraphicsPane {
             return;
         }
 
-        GObject obj = mainScreen.getElementAt(e.getX(), e.getY());
-        if (obj == null) return;
+        // HUD targets come from the grid instead of a walk over every canvas object
+        GObject obj = hudGrid.pick(e.getX(), e.getY());
 
         // Back or top bar
-        if (obj == backLabel || obj == topBar) {
+        if (obj == backLabel || obj == boardLayer) {
         	mainScreen.playSound("Media/hammer_hit.wav");
             mainScreen.switchToWelcomeScreen();
             return;
         }
 
-        // Power-up buttons first
+        // a replay plays its own inputs
+        if (replay != null) return;
+
+        // Power-up buttons first (applied by the simulation on its next step)
         if (obj == freezeButtonRect || obj == freezeLabel) {
         	mainScreen.playSound("Media/hammer_hit.wav");
-            handleFreezeButton();
+            link.offer(InputRecording.FREEZE, 0, 0);
             return;
         } else if (obj == x2PointsButtonRect || obj == x2PointsLabel) {
         	mainScreen.playSound("Media/hammer_hit.wav");
-            handleX2PointsButton();
+            link.offer(InputRecording.DOUBLE_POINTS, 0, 0);
             return;
         } else if (obj == x2CritButtonRect || obj == x2CritLabel) {
         	mainScreen.playSound("Media/hammer_hit.wav");
-            handleX2CritButton();
+            link.offer(InputRecording.CRIT, 0, 0);
             return;
         }
 
         // Otherwise, whack rats / boss
-        handleWhack(e.getX(), e.getY());
-    }
-
-    private void handleFreezeButton() {
-        if (freezeActive || freezeCooldownRemainingMs > 0) {
-            showCooldownMessage();
-            return;
-        }
-        freezeActive = true;
-        freezeRemainingMs = POWERUP_DURATION_MS;
-        freezeCooldownRemainingMs = POWERUP_COOLDOWN_MS;
-        updatePowerupButtonVisuals();
-    }
-
-    private void handleX2PointsButton() {
-        if (doublePointsActive || doublePointsCooldownRemainingMs > 0) {
-            showCooldownMessage();
-            return;
-        }
-        doublePointsActive = true;
-        doublePointsRemainingMs = POWERUP_DURATION_MS;
-        doublePointsCooldownRemainingMs = POWERUP_COOLDOWN_MS;
-        updatePowerupButtonVisuals();
-    }
-
-    private void handleX2CritButton() {
-        if (critActive || critCooldownRemainingMs > 0) {
-            showCooldownMessage();
-            return;
-        }
-        critActive = true;
-        critRemainingMs = POWERUP_DURATION_MS;
-        critCooldownRemainingMs = POWERUP_COOLDOWN_MS;
-        updatePowerupButtonVisuals();
+        link.offer(InputRecording.WHACK, e.getX(), e.getY());
     }
 
     @Override
@@ -1159,83 +1143,4 @@ public class GamePane extends GraphicsPane {
             togglePause();
         }
     }
-
-    private void handleWhack(double x, double y) {
-        // boss click
-        if (phase == Phase.BOSS && bossRat != null && bossRat.isVisible()
-                && bossRat.containsPoint(x, y)) {
-        	
-        	mainScreen.playSound("Media/hammer_hit.wav");
-            int dmg = BOSS_HIT_DAMAGE;
-            if (critActive) dmg *= 2; // x2 crit damage on boss
-
-            bossHp -= dmg;
-            if (bossHp < 0) bossHp = 0;
-            updateBossHpBar();
-
-            mainScreen.addToScore(250); // boss hit score
-
-            if (bossHp == 0) {
-                bossRat.despawn();
-                activeRats.remove(bossRat);
-                bossRat = null;
-                phase = Phase.FINISHED;
-                timeRemainingMs = 0;
-                updateTimerLabel();
-
-                if (!scoreRecorded) {
-                    scoreRecorded = true;
-                    int savedScore = bossModeOnly ? mainScreen.getPreBossScore()
-                                                  : mainScreen.getScore();
-                    mainScreen.recordScore(savedScore);
-                }
-                showGameOverOverlay("BOSS DEFEATED!");
-            }
-            return;
-        }
-
-        // normal rats
-        boolean hit = false;
-        for (Ratdg r : activeRats) {
-            if (r == bossRat) continue;
-            if (r.isVisible() && r.containsPoint(x, y)) {
-            	mainScreen.playSound("Media/hammer_hit.wav");
-                hit = true;
-
-                int delta = 0;
-                switch (r.getType()) {
-                    case NORMAL:
-                        delta = 50;
-                        break;
-                    case BONUS:
-                        delta = 100;
-                        break;
-                    case TRAP:
-                        delta = -25;
-                        break;
-                    default:
-                        break;
-                }
-
-                // apply x2 points logic
-                if (doublePointsActive) {
-                    if (delta > 0) {
-                        delta *= 2;
-                    } else if (delta < 0) {
-                        // trap rat becomes -50 while x2 is on
-                        delta = -50;
-                    }
-                }
-
-                mainScreen.addToScore(delta);
-                r.despawn();
-                break;
-            }
-        }
-
-        // misclick penalty in level 1
-        if (!hit && phase == Phase.NORMAL && timeRemainingMs > 0) {
-            mainScreen.addToScore(-25);
-        }
-    }
 }
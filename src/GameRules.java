@@ -0,0 +1,111 @@
+import java.util.Locale;
+
+// The tunable numbers of a round, for balancing: spawn chance, rat
+// lifetimes and the boss's HP and damage taken. DEFAULT is the game as
+// shipped; the balance simulator tries others. Zero for a spawn chance or
+// a lifetime means "as usual" (the spawn table's chance, the rat's own
+// lifetime).
+public final class GameRules {
+
+    public static final GameRules DEFAULT = new GameRules(0, 0, 0, 0, 500, 25);
+
+    private final double spawnChance;
+    private final int normalLifetimeMs;
+    private final int bonusLifetimeMs;
+    private final int trapLifetimeMs;
+    private final int bossMaxHp;
+    private final int bossHitDamage;
+
+    public GameRules(double spawnChance, int normalLifetimeMs, int bonusLifetimeMs,
+                     int trapLifetimeMs, int bossMaxHp, int bossHitDamage) {
+        if (!(spawnChance >= 0) || Double.isInfinite(spawnChance)) {
+            throw new IllegalArgumentException("bad spawn chance: " + spawnChance);
+        }
+        if (normalLifetimeMs < 0 || bonusLifetimeMs < 0 || trapLifetimeMs < 0) {
+            throw new IllegalArgumentException("lifetimes can't be negative");
+        }
+        if (bossMaxHp < 1 || bossHitDamage < 1) {
+            throw new IllegalArgumentException("boss HP and hit damage must be at least 1");
+        }
+        this.spawnChance = spawnChance;
+        this.normalLifetimeMs = normalLifetimeMs;
+        this.bonusLifetimeMs = bonusLifetimeMs;
+        this.trapLifetimeMs = trapLifetimeMs;
+        this.bossMaxHp = bossMaxHp;
+        this.bossHitDamage = bossHitDamage;
+    }
+
+    // Comma-separated changes to DEFAULT, e.g. "chance=0.06,bossHp=400".
+    // Keys: chance, normalLife, bonusLife, trapLife, bossHp, bossHit.
+    public static GameRules parse(String text) {
+        double chance = DEFAULT.spawnChance;
+        int normal = DEFAULT.normalLifetimeMs;
+        int bonus = DEFAULT.bonusLifetimeMs;
+        int trap = DEFAULT.trapLifetimeMs;
+        int bossHp = DEFAULT.bossMaxHp;
+        int bossHit = DEFAULT.bossHitDamage;
+
+        for (String part : text.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("expected key=value: " + part);
+            String key = part.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim();
+            try {
+                switch (key) {
+                    case "chance":     chance = Double.parseDouble(value); break;
+                    case "normallife": normal = Integer.parseInt(value); break;
+                    case "bonuslife":  bonus = Integer.parseInt(value); break;
+                    case "traplife":   trap = Integer.parseInt(value); break;
+                    case "bosshp":     bossHp = Integer.parseInt(value); break;
+                    case "bosshit":    bossHit = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("unknown rule: " + key);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad number: " + part);
+            }
+        }
+        return new GameRules(chance, normal, bonus, trap, bossHp, bossHit);
+    }
+
+    public double getSpawnChance() {
+        return spawnChance;
+    }
+
+    // 0 leaves the rat's own lifetime
+    public int getLifetimeMs(RatType type) {
+        switch (type) {
+            case NORMAL: return normalLifetimeMs;
+            case BONUS:  return bonusLifetimeMs;
+            case TRAP:   return trapLifetimeMs;
+            default:     return 0;
+        }
+    }
+
+    public int getBossMaxHp() {
+        return bossMaxHp;
+    }
+
+    public int getBossHitDamage() {
+        return bossHitDamage;
+    }
+
+    // Only what differs from DEFAULT, in parse() form ("default" if nothing)
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (spawnChance != DEFAULT.spawnChance) append(sb, "chance", spawnChance);
+        if (normalLifetimeMs != DEFAULT.normalLifetimeMs) append(sb, "normalLife", normalLifetimeMs);
+        if (bonusLifetimeMs != DEFAULT.bonusLifetimeMs) append(sb, "bonusLife", bonusLifetimeMs);
+        if (trapLifetimeMs != DEFAULT.trapLifetimeMs) append(sb, "trapLife", trapLifetimeMs);
+        if (bossMaxHp != DEFAULT.bossMaxHp) append(sb, "bossHp", bossMaxHp);
+        if (bossHitDamage != DEFAULT.bossHitDamage) append(sb, "bossHit", bossHitDamage);
+        return sb.length() == 0 ? "default" : sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String key, Object value) {
+        if (sb.length() > 0) sb.append(',');
+        sb.append(key).append('=').append(value);
+    }
+}
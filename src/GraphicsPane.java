@@ -8,6 +8,13 @@ public class GraphicsPane {
     protected MainApplication mainScreen;
     protected ArrayList<GObject> contents;
 
+    // Retained mode: panes put their long-lived objects in the scene once
+    // (buildScene), then showing/hiding the pane just attaches/detaches the
+    // whole scene. refreshScene updates data-bound parts before each show.
+    protected final SceneGroup scene = new SceneGroup();
+    private boolean sceneBuilt = false;
+    private double sceneWidth, sceneHeight;
+
     public GraphicsPane() {
         contents = new ArrayList<GObject>();
     }
@@ -15,6 +22,38 @@ public class GraphicsPane {
     public void showContent() { }
     public void hideContent() { }
 
+    protected void buildScene() { }
+    protected void refreshScene() { }
+
+    protected void addToScene(GObject obj) {
+        scene.add(obj);
+    }
+
+    // Builds the scene the first time (or after a resize) and adds it to the canvas
+    protected void attachScene() {
+        double w = mainScreen.getWidth();
+        double h = mainScreen.getHeight();
+        if (!sceneBuilt || w != sceneWidth || h != sceneHeight) {
+            scene.removeAll();
+            buildScene();
+            sceneBuilt = true;
+            sceneWidth = w;
+            sceneHeight = h;
+        }
+        refreshScene();
+        mainScreen.add(scene, 0, 0);
+    }
+
+    protected void detachScene() {
+        mainScreen.remove(scene);
+    }
+
+    // Like getElementAt on the canvas, but looks inside the scene (and any
+    // layer groups in it) so panes can compare against individual buttons
+    protected GObject getElementAt(double x, double y) {
+        return SceneGroup.resolve(mainScreen.getElementAt(x, y), x, y);
+    }
+
     public void mousePressed(MouseEvent e) { }
     public void mouseReleased(MouseEvent e) { }
     public void mouseClicked(MouseEvent e) { }
@@ -0,0 +1,206 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+// Runs GameEngine with no window at all. With a board (see BoardConfig.parse)
+// it plays whole rounds of level 1, as fast as the engine goes, with a bot
+// that now and then whacks at a random rat (or anywhere, when there is
+// none), and reports ticks per millisecond; "boss" or "swarm:N" does the
+// same for the boss level. With a recording (replays/last-*.rec) it plays
+// that session back and checks it ends on the recorded tick and score.
+// "check" records a round of level 1, the boss and a swarm with the bot,
+// saves and reloads each recording and checks that it replays exactly; the
+// boss and swarm rounds must be won, so they end on the bot's last click.
+//
+//   java -Djava.awt.headless=true -cp bin:acm.jar HeadlessRunner [classic|arena|RxC[:D]|boss|swarm:N] [rounds]
+//   java -Djava.awt.headless=true -cp bin:acm.jar HeadlessRunner replay:FILE
+//   java -Djava.awt.headless=true -cp bin:acm.jar HeadlessRunner check
+public class HeadlessRunner {
+
+    private static final int ARENA_W = MainApplication.WINDOW_WIDTH;
+    private static final int ARENA_H = MainApplication.WINDOW_HEIGHT;
+    private static final double CLICK_CHANCE = 0.2;  // per tick
+    private static final int WARMUP_ROUNDS = 20;
+
+    public static void main(String[] args) {
+        String what = args.length > 0 ? args[0] : "classic";
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        if (what.startsWith("replay:")) {
+            System.exit(replay(new File(what.substring("replay:".length()))) ? 0 : 1);
+        }
+        if (what.equals("check")) {
+            System.exit(check() ? 0 : 1);
+        }
+
+        GameEngine engine = newEngine(what);
+        engine.setArena(ARENA_W, ARENA_H);
+        benchmark(engine, rounds);
+    }
+
+    private static GameEngine newEngine(String what) {
+        if (what.equals("boss")) {
+            return new GameEngine(BoardConfig.CLASSIC, true, 0);
+        } else if (what.startsWith("swarm:")) {
+            int size = Integer.parseInt(what.substring("swarm:".length()));
+            return new GameEngine(BoardConfig.CLASSIC, true, size);
+        }
+        return new GameEngine(BoardConfig.parse(what), false, 0);
+    }
+
+    // "level1 on 3x4", "boss" or "swarm 500"
+    private static String describe(GameEngine engine) {
+        if (engine.getSwarmSize() > 0) return "swarm " + engine.getSwarmSize();
+        if (engine.getLevelName().equals("boss")) return "boss";
+        return engine.getLevelName() + " on " + engine.getBoard();
+    }
+
+    private static void benchmark(GameEngine engine, int rounds) {
+        Random bot = new Random(1);
+        Map<String, SpawnTable> tables = SpawnTable.load(SpawnTable.FILE);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            playRound(engine, tables, i, bot);
+        }
+
+        long ticks = 0;
+        long scoreSum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            ticks += playRound(engine, tables, WARMUP_ROUNDS + i, bot);
+            scoreSum += engine.getScore();
+        }
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%s: %d rounds, %d ticks in %.1f ms = %.0f ticks/ms, mean score %.1f%n",
+                describe(engine), rounds, ticks, ms, ticks / ms, scoreSum / (double) rounds);
+    }
+
+    // One round to the end; returns the ticks it took
+    private static int playRound(GameEngine engine, Map<String, SpawnTable> tables,
+                                 long seed, Random bot) {
+        engine.startRound(seed, tables);
+        playOut(engine, bot);
+        return engine.getTickNo();
+    }
+
+    // Ticks the started round to its end, clicking now and then
+    private static void playOut(GameEngine engine, Random bot) {
+        Swarm swarm = engine.getSwarm();
+        while (!engine.isFinished()) {
+            if (bot.nextDouble() < CLICK_CHANCE) {
+                if (swarm != null && swarm.size() > 0) {
+                    int i = bot.nextInt(swarm.size());
+                    engine.input(InputRecording.WHACK, swarm.getX(i), swarm.getY(i));
+                } else if (engine.getRatCount() > 0) {
+                    Ratdg r = engine.getRat(bot.nextInt(engine.getRatCount()));
+                    engine.input(InputRecording.WHACK, r.getReachX() + r.getReachWidth() / 2,
+                            r.getReachY() + r.getReachHeight() / 2);
+                } else {
+                    engine.input(InputRecording.WHACK, bot.nextDouble() * ARENA_W,
+                            bot.nextDouble() * ARENA_H);
+                }
+            }
+            engine.tick(GameEngine.TICK_MS);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Replays
+    // ------------------------------------------------------------
+
+    // Each mode with how the bot's round must end; a won boss or swarm
+    // round ends on the click that finished it, not on a tick
+    private static final String[] CHECK_MODES = {"classic", "boss", "swarm:20"};
+    private static final String[] CHECK_ENDS = {null, "BOSS DEFEATED!", "SWARM DEFEATED!"};
+    private static final long CHECK_SEED = 5;
+
+    private static boolean check() {
+        Map<String, SpawnTable> tables = SpawnTable.load(SpawnTable.FILE);
+        boolean ok = true;
+        for (int m = 0; m < CHECK_MODES.length; m++) {
+            GameEngine engine = newEngine(CHECK_MODES[m]);
+            engine.setArena(ARENA_W, ARENA_H);
+            engine.startRound(CHECK_SEED, tables);
+            InputRecording rec = new InputRecording(engine.getLevelName(), CHECK_SEED,
+                    SpawnTable.hash(tables), GameEngine.TICK_MS, engine.getBoard(),
+                    engine.getSwarmSize(), ARENA_W, ARENA_H);
+            engine.setRecording(rec);
+            playOut(engine, new Random(CHECK_SEED));
+            rec.finish(engine.getTickNo(), engine.getScore());
+
+            String end = CHECK_ENDS[m];
+            boolean endedRight = end == null ? engine.isLevelComplete() : end.equals(engine.getEndText());
+            if (!endedRight) {
+                System.out.println("ERROR " + describe(engine) + ": the bot's round ended with "
+                        + engine.getEndText() + ", expected " + (end == null ? "level complete" : end));
+                ok = false;
+                continue;
+            }
+
+            try {
+                File file = File.createTempFile("check-", ".rec");
+                file.deleteOnExit();
+                rec.save(file);
+                rec = InputRecording.load(file);
+            } catch (IOException e) {
+                System.out.println("ERROR saving or loading " + describe(engine) + " recording: "
+                        + e.getMessage());
+                ok = false;
+                continue;
+            }
+            System.out.print(describe(engine) + ": ");
+            ok &= replay(rec, tables);
+        }
+        return ok;
+    }
+
+    private static boolean replay(File file) {
+        InputRecording rec;
+        try {
+            rec = InputRecording.load(file);
+        } catch (IOException e) {
+            System.out.println("ERROR loading replay: " + e.getMessage());
+            return false;
+        }
+        if (!rec.isFinished()) {
+            System.out.println("ERROR replay " + file + " was never finished");
+            return false;
+        }
+
+        Map<String, SpawnTable> tables = SpawnTable.load(SpawnTable.FILE);
+        if (rec.getTablesHash() != SpawnTable.hash(tables)) {
+            System.out.println("ERROR replay " + file + " was recorded with different spawn tables than "
+                    + SpawnTable.FILE + " has now");
+            return false;
+        }
+        return replay(rec, tables);
+    }
+
+    // Plays a finished recording back and checks it ends on the recorded
+    // tick and score
+    private static boolean replay(InputRecording rec, Map<String, SpawnTable> tables) {
+        // a swarm only fights on the boss level
+        boolean bossLevel = rec.getSwarmSize() > 0 || rec.getLevel().equals("boss");
+        GameEngine engine = new GameEngine(rec.getBoard(), bossLevel, rec.getSwarmSize());
+        engine.setArena(rec.getArenaWidth(), rec.getArenaHeight());
+        engine.startRound(rec.getSeed(), tables);
+        engine.setReplay(rec);
+
+        long start = System.nanoTime();
+        while (!engine.isFinished()) {
+            engine.tick(rec.getStepMs());
+        }
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        int tickNo = engine.getTickNo();
+        int score = engine.getScore();
+        if (tickNo == rec.getEndTick() && score == rec.getFinalScore()) {
+            System.out.printf("Replay matched: score %d at tick %d (%.1f ms)%n", score, tickNo, ms);
+            return true;
+        }
+        System.out.println("ERROR replay diverged: score " + score + " at tick " + tickNo
+                + ", recorded " + rec.getFinalScore() + " at tick " + rec.getEndTick());
+        return false;
+    }
+}
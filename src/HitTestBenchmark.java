@@ -0,0 +1,132 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Microbenchmark: click hit tests against boards of growing size, with a
+// linear scan over every hole (the old handleWhack approach) next to a
+// SpatialGrid lookup. Grid time should stay flat as the board grows.
+// Then the cost of the alpha-mask stage on top of a sprite's bounding box.
+//
+//   java -cp bin:acm.jar HitTestBenchmark
+public class HitTestBenchmark {
+
+    private static final double HOLE_RADIUS = 30;
+    private static final double SPACING = 5 * HOLE_RADIUS;
+    private static final double REACH = 2 * HOLE_RADIUS;
+    private static final int QUERIES = 1 << 16;
+    private static final int ROUNDS = 20;
+
+    private static volatile int sink;  // keeps results alive
+
+    public static void main(String[] args) {
+        System.out.println("board      holes   linear ns/click   grid ns/click");
+        for (int n : new int[] {4, 8, 16, 32, 64, 128}) {
+            run(n);
+        }
+        System.out.println();
+        maskCost("rat_normal.png", 60, 60);
+    }
+
+    private static void run(int n) {
+        double size = n * SPACING;
+        List<Hole> holes = new ArrayList<>(n * n);
+        SpatialGrid<Hole> grid = new SpatialGrid<>(size, size, 2 * HOLE_RADIUS);
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                Hole h = new Hole((col + 0.5) * SPACING, (row + 0.5) * SPACING);
+                holes.add(h);
+                grid.insert(h, h.getX() - REACH, h.getY() - REACH, 2 * REACH, 2 * REACH);
+            }
+        }
+
+        Random rng = new Random(42);
+        double[] xs = new double[QUERIES];
+        double[] ys = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            xs[i] = rng.nextDouble() * size;
+            ys[i] = rng.nextDouble() * size;
+        }
+
+        long linear = Long.MAX_VALUE;
+        long gridded = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {  // early rounds are warm-up
+            long t0 = System.nanoTime();
+            sink += linearScan(holes, xs, ys);
+            long t1 = System.nanoTime();
+            sink += gridLookup(grid, xs, ys);
+            long t2 = System.nanoTime();
+            linear = Math.min(linear, t1 - t0);
+            gridded = Math.min(gridded, t2 - t1);
+        }
+
+        System.out.printf("%3dx%-3d  %7d   %15.1f   %13.1f%n", n, n, n * n,
+                linear / (double) QUERIES, gridded / (double) QUERIES);
+    }
+
+    // Random clicks inside the sprite's box: box test alone vs box + mask
+    private static void maskCost(String sprite, int w, int h) {
+        AlphaMask mask;
+        try {
+            mask = SpriteCache.getMask(sprite, w, h);
+        } catch (RuntimeException e) {
+            System.out.println("ERROR loading " + sprite + ": " + e.getMessage());
+            return;
+        }
+
+        Random rng = new Random(7);
+        double[] xs = new double[QUERIES];
+        double[] ys = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            xs[i] = rng.nextDouble() * w;
+            ys[i] = rng.nextDouble() * h;
+        }
+
+        long boxOnly = Long.MAX_VALUE;
+        long withMask = Long.MAX_VALUE;
+        int maskHits = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            int hits = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                if (xs[q] >= 0 && xs[q] < w && ys[q] >= 0 && ys[q] < h) hits++;
+            }
+            long t1 = System.nanoTime();
+            maskHits = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                if (xs[q] >= 0 && xs[q] < w && ys[q] >= 0 && ys[q] < h
+                        && mask.contains((int) xs[q], (int) ys[q])) maskHits++;
+            }
+            long t2 = System.nanoTime();
+            sink += hits + maskHits;
+            boxOnly = Math.min(boxOnly, t1 - t0);
+            withMask = Math.min(withMask, t2 - t1);
+        }
+
+        System.out.printf("%s %dx%d: box %.1f ns/click, box+mask %.1f ns/click, "
+                        + "%.0f%% of box clicks land on transparent pixels%n",
+                sprite, w, h, boxOnly / (double) QUERIES, withMask / (double) QUERIES,
+                100.0 * (QUERIES - maskHits) / QUERIES);
+    }
+
+    private static int linearScan(List<Hole> holes, double[] xs, double[] ys) {
+        int hits = 0;
+        for (int q = 0; q < xs.length; q++) {
+            for (int i = 0; i < holes.size(); i++) {
+                Hole h = holes.get(i);
+                if (Math.abs(xs[q] - h.getX()) < REACH && Math.abs(ys[q] - h.getY()) < REACH) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static int gridLookup(SpatialGrid<Hole> grid, double[] xs, double[] ys) {
+        int hits = 0;
+        for (int q = 0; q < xs.length; q++) {
+            if (grid.pick(xs[q], ys[q]) != null) hits++;
+        }
+        return hits;
+    }
+}
@@ -3,6 +3,10 @@ public class Hole {
     private final double y;
     private Ratdg currentRat;  // null when empty
 
+    // Board occupancy index this hole reports to (null for stand-alone holes)
+    private HoleOccupancy occupancy;
+    private int index = -1;
+
     public Hole(double x, double y) {
         this.x = x;
         this.y = y;
@@ -10,18 +14,27 @@ public class Hole {
 
     public double getX() { return x; }
     public double getY() { return y; }
+    public int getIndex() { return index; }
 
     public boolean isOccupied() { return currentRat != null; }
+    public Ratdg getRat() { return currentRat; }
+
+    void attach(HoleOccupancy occupancy, int index) {
+        this.occupancy = occupancy;
+        this.index = index;
+    }
 
-    public void spawn(Ratdg rat) {
+    public void spawn(Ratdg rat, TimerWheel timers) {
         if (isOccupied()) return;
         currentRat = rat;
-        rat.onSpawn(this);
+        if (occupancy != null) occupancy.markOccupied(index);
+        rat.onSpawn(this, timers);
     }
 
     public void clearRat(Ratdg rat) {
         if (currentRat == rat) {
             currentRat = null;
+            if (occupancy != null) occupancy.markFree(index);
         }
     }
 }
@@ -0,0 +1,83 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// Which holes of a board are occupied. An occupied-bit per hole plus a
+// dense list of free hole indices (swap-remove keeps it packed), so
+// counting occupied holes and picking a random free one are O(1) and
+// allocation-free. Hole.spawn / Hole.clearRat keep it up to date.
+public class HoleOccupancy {
+
+    private Hole[] holes = new Hole[16];
+    private long[] occupied = new long[1];
+    private int[] free = new int[16];      // indices of free holes, packed
+    private int[] freePos = new int[16];   // where each hole sits in free, -1 if occupied
+    private int size = 0;
+    private int freeCount = 0;
+
+    // Registers a new (empty) hole and gives it its index; only while laying out a board
+    public void add(Hole hole) {
+        if (size == holes.length) {
+            int cap = size * 2;
+            holes = Arrays.copyOf(holes, cap);
+            free = Arrays.copyOf(free, cap);
+            freePos = Arrays.copyOf(freePos, cap);
+        }
+        if ((size >> 6) >= occupied.length) {
+            occupied = Arrays.copyOf(occupied, occupied.length * 2);
+        }
+        int i = size++;
+        holes[i] = hole;
+        freePos[i] = freeCount;
+        free[freeCount++] = i;
+        hole.attach(this, i);
+    }
+
+    public void clear() {
+        Arrays.fill(holes, 0, size, null);
+        Arrays.fill(occupied, 0L);
+        size = 0;
+        freeCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int occupiedCount() {
+        return size - freeCount;
+    }
+
+    public int freeCount() {
+        return freeCount;
+    }
+
+    public boolean isOccupied(int index) {
+        return (occupied[index >> 6] & (1L << index)) != 0;
+    }
+
+    // A uniformly random free hole, or null if the board is full
+    public Hole randomFree(Random rng) {
+        if (freeCount == 0) return null;
+        return holes[free[rng.nextInt(freeCount)]];
+    }
+
+    void markOccupied(int index) {
+        if (isOccupied(index)) return;
+        occupied[index >> 6] |= 1L << index;
+
+        // swap-remove from the free list
+        int pos = freePos[index];
+        int last = free[--freeCount];
+        free[pos] = last;
+        freePos[last] = pos;
+        freePos[index] = -1;
+    }
+
+    void markFree(int index) {
+        if (!isOccupied(index)) return;
+        occupied[index >> 6] &= ~(1L << index);
+
+        freePos[index] = freeCount;
+        free[freeCount++] = index;
+    }
+}
@@ -0,0 +1,217 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Benchmarks for the game's hot paths, each reported as time per operation
+// and bytes allocated per operation on the calling thread, so every
+// performance change can be measured before and after:
+//
+//   tick          one 40 ms GameEngine step of level 1 with no input, per board size
+//   maybeSpawn    the spawn roll and spawn (board emptied whenever it fills)
+//   hitTest       the rat lookup behind a whack, on a full board
+//   scoreboard    Scoreboard.update with a new score, and with one shown before
+//   leaderboard   adding one score to a leaderboard of growing size
+//   sprite        building a rat (hit box and mask from SpriteCache), and
+//                 decoding a sprite from disk, as when the cache is cold
+//
+// Each benchmark warms up, then runs ROUNDS timed batches and keeps the
+// fastest batch's time (least disturbed by other work) and the mean
+// allocation.
+//
+//   java -Djava.awt.headless=true -cp bin:acm.jar HotPathBenchmark [name...]
+public class HotPathBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final long BATCH_NANOS = 100_000_000L;  // aim for ~0.1 s per batch
+
+    private static final String[] BOARDS = {"classic", "10x10", "20x20:0.25", "64x64:0.25"};
+
+    private static volatile Object sink;  // keeps results alive
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // One operation; i counts operations within the batch
+    private interface Op {
+        void run(int i);
+    }
+
+    public static void main(String[] args) {
+        List<String> only = new ArrayList<>();
+        for (String a : args) only.add(a);
+
+        System.out.printf("%-30s %14s %12s%n", "benchmark", "ns/op", "bytes/op");
+        Map<String, SpawnTable> tables = SpawnTable.load(SpawnTable.FILE);
+
+        if (wanted(only, "tick")) {
+            for (String board : BOARDS) tick(board, tables);
+        }
+        if (wanted(only, "maybeSpawn")) {
+            for (String board : BOARDS) maybeSpawn(board, tables);
+        }
+        if (wanted(only, "hitTest")) {
+            for (String board : BOARDS) hitTest(board, tables);
+        }
+        if (wanted(only, "scoreboard")) scoreboard();
+        if (wanted(only, "leaderboard")) {
+            for (int size : new int[] {10, 1_000, 100_000}) leaderboard(size);
+        }
+        if (wanted(only, "sprite")) sprite();
+    }
+
+    private static boolean wanted(List<String> only, String name) {
+        return only.isEmpty() || only.contains(name);
+    }
+
+    // ------------------------------------------------------------
+    // Benchmarks
+    // ------------------------------------------------------------
+
+    private static GameEngine level1(String board, Map<String, SpawnTable> tables) {
+        GameEngine engine = new GameEngine(BoardConfig.parse(board), false, 0);
+        engine.setArena(MainApplication.WINDOW_WIDTH, MainApplication.WINDOW_HEIGHT);
+        engine.startRound(1, tables);
+        return engine;
+    }
+
+    private static void tick(String board, final Map<String, SpawnTable> tables) {
+        final GameEngine engine = level1(board, tables);
+        final long[] seed = {1};
+        measure("tick " + board, new Op() {
+            @Override
+            public void run(int i) {
+                if (engine.isFinished()) engine.startRound(++seed[0], tables);
+                engine.tick(GameEngine.TICK_MS);
+            }
+        });
+    }
+
+    private static void maybeSpawn(String board, Map<String, SpawnTable> tables) {
+        final GameEngine engine = level1(board, tables);
+        measure("maybeSpawn " + board, new Op() {
+            @Override
+            public void run(int i) {
+                if (engine.getOccupiedHoles() >= engine.getMaxActiveRats()) engine.releaseAllRats();
+                engine.maybeSpawn(1);
+            }
+        });
+    }
+
+    private static void hitTest(String board, Map<String, SpawnTable> tables) {
+        final GameEngine engine = level1(board, tables);
+        while (engine.getOccupiedHoles() < engine.getMaxActiveRats()) {
+            engine.maybeSpawn(1);
+        }
+
+        // clicks all over the board: over rats, empty holes and wood
+        BoardLayout layout = engine.getLayout();
+        Random rng = new Random(42);
+        final int n = 1 << 12;
+        final double[] xs = new double[n];
+        final double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = layout.getBoardX() + rng.nextDouble() * layout.getBoardWidth();
+            ys[i] = layout.getBoardY() + rng.nextDouble() * layout.getBoardHeight();
+        }
+        final long now = engine.getWorldMs();
+        measure("hitTest " + board, new Op() {
+            @Override
+            public void run(int i) {
+                sink = engine.holeRatAt(xs[i & (n - 1)], ys[i & (n - 1)], now);
+            }
+        });
+    }
+
+    private static void scoreboard() {
+        final Scoreboard scoreboard = new Scoreboard(null);  // no canvas: label and layout only
+        measure("scoreboard update", new Op() {
+            @Override
+            public void run(int i) {
+                scoreboard.update(i & 0xffff);
+            }
+        });
+        measure("scoreboard update, seen score", new Op() {
+            @Override
+            public void run(int i) {
+                scoreboard.update((i & 0x3ff) * 5);
+            }
+        });
+    }
+
+    private static void leaderboard(final int size) {
+        final List<MainApplication.ScoreEntry> board = new ArrayList<>(size + 1);
+        Random rng = new Random(42);
+        for (int i = 0; i < size; i++) {
+            MainApplication.insertScore(board,
+                    new MainApplication.ScoreEntry("Player", rng.nextInt(10_000)), size);
+        }
+        final int[] scores = new int[1 << 12];
+        for (int i = 0; i < scores.length; i++) scores[i] = rng.nextInt(10_000);
+
+        measure("leaderboard insert " + size, new Op() {
+            @Override
+            public void run(int i) {
+                MainApplication.insertScore(board,
+                        new MainApplication.ScoreEntry("Player", scores[i & (scores.length - 1)]),
+                        size);
+            }
+        });
+    }
+
+    private static void sprite() {
+        measure("sprite new NormalRat", new Op() {
+            @Override
+            public void run(int i) {
+                sink = new NormalRat();
+            }
+        });
+        measure("sprite decode from disk", new Op() {
+            @Override
+            public void run(int i) {
+                sink = SpriteCache.decode("rat_normal.png");
+            }
+        });
+    }
+
+    // ------------------------------------------------------------
+    // Harness
+    // ------------------------------------------------------------
+
+    private static void measure(String name, Op op) {
+        long tid = Thread.currentThread().getId();
+
+        // size the batch so it takes about BATCH_NANOS
+        int ops = 1;
+        while (true) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ops; i++) op.run(i);
+            long t = System.nanoTime() - t0;
+            if (t >= BATCH_NANOS / 4 || ops >= (1 << 30)) {
+                ops = (int) Math.max(1, Math.min(1 << 30, ops * (double) BATCH_NANOS / t));
+                break;
+            }
+            ops *= 2;
+        }
+
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            for (int i = 0; i < ops; i++) op.run(i);
+        }
+
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long b0 = THREADS.getThreadAllocatedBytes(tid);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ops; i++) op.run(i);
+            long t = System.nanoTime() - t0;
+            allocated += THREADS.getThreadAllocatedBytes(tid) - b0;
+            best = Math.min(best, t);
+        }
+
+        System.out.printf("%-30s %14.1f %12.1f%n", name, best / (double) ops,
+                allocated / (double) ROUNDS / ops);
+    }
+}
@@ -18,6 +18,12 @@ public class InfoPane extends GraphicsPane {
 
     @Override
     public void showContent() {
+        attachScene();
+    }
+
+    // Everything here is static, so it is only built once
+    @Override
+    protected void buildScene() {
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
 
@@ -26,24 +32,21 @@ public class InfoPane extends GraphicsPane {
         bg.setFilled(true);
         bg.setFillColor(new Color(20, 24, 32));
         bg.setColor(Color.BLACK);
-        contents.add(bg);
-        mainScreen.add(bg);
+        addToScene(bg);
 
         // Title
         GLabel title = new GLabel("RAT GUIDE");
         title.setFont(new Font("SansSerif", Font.BOLD, 32));
         title.setColor(Color.WHITE);
         title.setLocation((w - title.getWidth()) / 2.0, 70);
-        contents.add(title);
-        mainScreen.add(title);
+        addToScene(title);
 
         // Back
         backLabel = new GLabel("< BACK");
         backLabel.setFont(new Font("SansSerif", Font.BOLD, 18));
         backLabel.setColor(Color.WHITE);
         backLabel.setLocation(30, 40);
-        contents.add(backLabel);
-        mainScreen.add(backLabel);
+        addToScene(backLabel);
 
         // --- Card layout ---
         double cardW = 260;
@@ -86,14 +89,13 @@ public class InfoPane extends GraphicsPane {
         card.setFilled(true);
         card.setFillColor(new Color(40, 48, 65));
         card.setColor(new Color(180, 180, 180));
-        contents.add(card);
-        mainScreen.add(card);
+        addToScene(card);
 
         double imgTopY = y + 18;
         double imgMaxH = 110;
 
-        try {
-            GImage img = new GImage(imageFile);
+        GImage img = mainScreen.getAssets().createImage(imageFile);
+        if (img != null) {
             double scale = imgMaxH / img.getHeight();
             if (scale < 1.0) {
                 img.scale(scale);
@@ -103,9 +105,8 @@ public class InfoPane extends GraphicsPane {
                     imgTopY
             );
 
-            contents.add(img);
-            mainScreen.add(img);
-        } catch (Exception ex) {
+            addToScene(img);
+        } else {
             GRect placeholder = new GRect(
                     x + (cardW - 80) / 2.0,
                     imgTopY + 10,
@@ -115,8 +116,7 @@ public class InfoPane extends GraphicsPane {
             placeholder.setFilled(true);
             placeholder.setFillColor(new Color(90, 90, 90));
             placeholder.setColor(Color.WHITE);
-            contents.add(placeholder);
-            mainScreen.add(placeholder);
+            addToScene(placeholder);
         }
 
         // Name
@@ -128,8 +128,7 @@ public class InfoPane extends GraphicsPane {
                 x + (cardW - nameLbl.getWidth()) / 2.0,
                 nameY
         );
-        contents.add(nameLbl);
-        mainScreen.add(nameLbl);
+        addToScene(nameLbl);
 
         // Description lines
         String[] lines = desc.split("\n");
@@ -140,22 +139,18 @@ public class InfoPane extends GraphicsPane {
             line.setFont(new Font("SansSerif", Font.PLAIN, 13));
             line.setColor(Color.LIGHT_GRAY);
             line.setLocation(x + 18, baseY + i * lineGap);
-            contents.add(line);
-            mainScreen.add(line);
+            addToScene(line);
         }
     }
 
     @Override
     public void hideContent() {
-        for (GObject obj : contents) {
-            mainScreen.remove(obj);
-        }
-        contents.clear();
+        detachScene();
     }
 
     @Override
     public void mouseClicked(MouseEvent e) {
-        GObject hit = mainScreen.getElementAt(e.getX(), e.getY());
+        GObject hit = getElementAt(e.getX(), e.getY());
         if (hit == backLabel) {
             mainScreen.switchToWelcomeScreen();
         }
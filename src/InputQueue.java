@@ -0,0 +1,56 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Clicks on their way from the EDT to the simulation thread: a fixed ring
+// of (type, x, y) slots with one writer (the EDT) and one reader (the game
+// loop), so queueing and draining an input allocates nothing. Types are
+// InputRecording event types. When the ring is full (the loop is stalled)
+// further clicks are dropped.
+public final class InputQueue {
+
+    private final int mask;
+    private final int[] types;
+    private final double[] xs;
+    private final double[] ys;
+
+    // slots written / read so far; the writer only moves tail, the reader head
+    private final AtomicInteger head = new AtomicInteger();
+    private final AtomicInteger tail = new AtomicInteger();
+
+    // capacity is rounded up to a power of two
+    public InputQueue(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = n - 1;
+        types = new int[n];
+        xs = new double[n];
+        ys = new double[n];
+    }
+
+    // Writer side; false if the input was dropped
+    public boolean offer(int type, double x, double y) {
+        int t = tail.get();
+        if (t - head.get() > mask) return false;
+        int i = t & mask;
+        types[i] = type;
+        xs[i] = x;
+        ys[i] = y;
+        tail.lazySet(t + 1);  // publishes the slot to the reader
+        return true;
+    }
+
+    // Reader side: feeds every queued input to the engine, oldest first
+    public void drainTo(GameEngine engine) {
+        int h = head.get();
+        int t = tail.get();
+        while (h != t) {
+            int i = h & mask;
+            engine.input(types[i], xs[i], ys[i]);
+            h++;
+        }
+        head.lazySet(h);  // hands the slots back to the writer
+    }
+
+    // Only while the reader is stopped
+    public void clear() {
+        head.set(tail.get());
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+// Everything needed to play a round again exactly: the session's RNG seed,
+// the settings the simulation depends on (including a hash of the spawn
+// tables, which are read from a file), and every input stamped with the
+// simulation tick it was applied on. Ends with the tick and score the
+// round finished on, so a replay can check that it came out the same.
+//
+// Binary file layout (big-endian, DataOutputStream):
+//   int magic "RATR", byte version, UTF level, long seed, long tablesHash, short stepMs,
+//   short rows, short cols, double density, int swarmSize,
+//   short arenaW, short arenaH, int endTick, int finalScore, int eventCount,
+//   then per event: varint tick delta, byte type, and for whacks short x, short y
+public final class InputRecording {
+
+    private static final int MAGIC = 0x52415452;  // "RATR"
+    private static final int VERSION = 2;
+
+    // Event types (GamePane maps its inputs onto these)
+    public static final int WHACK = 0;
+    public static final int FREEZE = 1;
+    public static final int DOUBLE_POINTS = 2;
+    public static final int CRIT = 3;
+    public static final int PAUSE = 4;
+    public static final int RESUME = 5;
+    private static final int TYPE_COUNT = 6;
+
+    private final String level;
+    private final long seed;
+    private final long tablesHash;  // SpawnTable.hash of the tables played with
+    private final int stepMs;
+    private final BoardConfig board;
+    private final int swarmSize;
+    private final int arenaW, arenaH;
+
+    private int endTick = -1;  // -1 until finish()
+    private int finalScore;
+
+    private int size = 0;
+    private int[] ticks = new int[64];
+    private byte[] types = new byte[64];
+    private short[] xs = new short[64];
+    private short[] ys = new short[64];
+
+    public InputRecording(String level, long seed, long tablesHash, int stepMs,
+                          BoardConfig board, int swarmSize, int arenaW, int arenaH) {
+        this.level = level;
+        this.seed = seed;
+        this.tablesHash = tablesHash;
+        this.stepMs = stepMs;
+        this.board = board;
+        this.swarmSize = swarmSize;
+        this.arenaW = arenaW;
+        this.arenaH = arenaH;
+    }
+
+    public void add(int tick, int type, double x, double y) {
+        if (size == ticks.length) grow();
+        ticks[size] = tick;
+        types[size] = (byte) type;
+        xs[size] = (short) x;
+        ys[size] = (short) y;
+        size++;
+    }
+
+    public void finish(int endTick, int finalScore) {
+        this.endTick = endTick;
+        this.finalScore = finalScore;
+    }
+
+    public boolean isFinished() {
+        return endTick >= 0;
+    }
+
+    public String getLevel() { return level; }
+    public long getSeed() { return seed; }
+    public long getTablesHash() { return tablesHash; }
+    public int getStepMs() { return stepMs; }
+    public BoardConfig getBoard() { return board; }
+    public int getSwarmSize() { return swarmSize; }
+    public int getArenaWidth() { return arenaW; }
+    public int getArenaHeight() { return arenaH; }
+    public int getEndTick() { return endTick; }
+    public int getFinalScore() { return finalScore; }
+
+    public int size() { return size; }
+    public int getTick(int i) { return ticks[i]; }
+    public int getType(int i) { return types[i]; }
+    public int getX(int i) { return xs[i]; }
+    public int getY(int i) { return ys[i]; }
+
+    private void grow() {
+        int n = ticks.length * 2;
+        int[] t = new int[n];
+        byte[] ty = new byte[n];
+        short[] x = new short[n];
+        short[] y = new short[n];
+        System.arraycopy(ticks, 0, t, 0, size);
+        System.arraycopy(types, 0, ty, 0, size);
+        System.arraycopy(xs, 0, x, 0, size);
+        System.arraycopy(ys, 0, y, 0, size);
+        ticks = t;
+        types = ty;
+        xs = x;
+        ys = y;
+    }
+
+    // ------------------------------------------------------------
+    // File format
+    // ------------------------------------------------------------
+
+    public void save(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) dir.mkdirs();
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(level);
+            out.writeLong(seed);
+            out.writeLong(tablesHash);
+            out.writeShort(stepMs);
+            out.writeShort(board.getRows());
+            out.writeShort(board.getCols());
+            out.writeDouble(board.getDensity());
+            out.writeInt(swarmSize);
+            out.writeShort(arenaW);
+            out.writeShort(arenaH);
+            out.writeInt(endTick);
+            out.writeInt(finalScore);
+            out.writeInt(size);
+
+            int lastTick = 0;
+            for (int i = 0; i < size; i++) {
+                writeVarInt(out, ticks[i] - lastTick);
+                lastTick = ticks[i];
+                out.writeByte(types[i]);
+                if (types[i] == WHACK) {
+                    out.writeShort(xs[i]);
+                    out.writeShort(ys[i]);
+                }
+            }
+        }
+    }
+
+    public static InputRecording load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not an input recording: " + file);
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("unsupported recording version " + version);
+
+            String level = in.readUTF();
+            long seed = in.readLong();
+            long tablesHash = in.readLong();
+            int stepMs = in.readShort();
+            int rows = in.readShort();
+            int cols = in.readShort();
+            double density = in.readDouble();
+            int swarmSize = in.readInt();
+            int arenaW = in.readShort();
+            int arenaH = in.readShort();
+
+            BoardConfig board;
+            try {
+                board = new BoardConfig(rows, cols, density);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("bad board in recording: " + e.getMessage());
+            }
+            InputRecording rec = new InputRecording(level, seed, tablesHash, stepMs, board,
+                    swarmSize, arenaW, arenaH);
+            int endTick = in.readInt();
+            int finalScore = in.readInt();
+            if (endTick >= 0) rec.finish(endTick, finalScore);
+
+            int count = in.readInt();
+            if (count < 0) throw new IOException("bad event count " + count);
+            int tick = 0;
+            for (int i = 0; i < count; i++) {
+                tick += readVarInt(in);
+                int type = in.readUnsignedByte();
+                if (type >= TYPE_COUNT) throw new IOException("bad event type " + type);
+                int x = 0, y = 0;
+                if (type == WHACK) {
+                    x = in.readShort();
+                    y = in.readShort();
+                }
+                rec.add(tick, type, x, y);
+            }
+            return rec;
+        }
+    }
+
+    // 7 bits per byte, high bit set on all but the last: most tick gaps fit in 1-2 bytes
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("bad varint");
+    }
+}
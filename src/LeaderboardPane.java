@@ -6,7 +6,12 @@ import java.awt.event.MouseEvent;
 import java.util.List;
 
 public class LeaderboardPane extends GraphicsPane {
+    private static final Font ROW_FONT = new Font("Monospaced", Font.PLAIN, 18);
+
     private GLabel backLabel;
+    private final GLabel[] rankLabels = new GLabel[MainApplication.LEADERBOARD_SIZE];
+    private final GLabel[] nameLabels = new GLabel[MainApplication.LEADERBOARD_SIZE];
+    private final GLabel[] scoreLabels = new GLabel[MainApplication.LEADERBOARD_SIZE];
 
     public LeaderboardPane(MainApplication mainScreen) {
         this.mainScreen = mainScreen;
@@ -14,6 +19,17 @@ public class LeaderboardPane extends GraphicsPane {
 
     @Override
     public void showContent() {
+        attachScene();
+    }
+
+    @Override
+    public void hideContent() {
+        detachScene();
+    }
+
+    // Static parts plus one (empty) label per row, built once
+    @Override
+    protected void buildScene() {
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
 
@@ -21,87 +37,77 @@ public class LeaderboardPane extends GraphicsPane {
         bg.setFilled(true);
         bg.setFillColor(new Color(30, 30, 40));
         bg.setColor(Color.BLACK);
-        contents.add(bg);
-        mainScreen.add(bg);
+        addToScene(bg);
 
         GLabel title = new GLabel("LEADERBOARD");
         title.setFont(new Font("Monospaced", Font.BOLD, 32));
         title.setColor(Color.WHITE);
         title.setLocation((w - title.getWidth()) / 2.0, 80);
-        contents.add(title);
-        mainScreen.add(title);
+        addToScene(title);
 
         backLabel = new GLabel("< BACK");
         backLabel.setFont(new Font("Monospaced", Font.BOLD, 18));
         backLabel.setColor(Color.LIGHT_GRAY);
         backLabel.setLocation(30, 40);
-        contents.add(backLabel);
-        mainScreen.add(backLabel);
+        addToScene(backLabel);
 
         GLabel rankHeader = new GLabel("#");
         rankHeader.setFont(new Font("Monospaced", Font.BOLD, 18));
         rankHeader.setColor(Color.YELLOW);
         rankHeader.setLocation(180, 130);
-        contents.add(rankHeader);
-        mainScreen.add(rankHeader);
+        addToScene(rankHeader);
 
         GLabel nameHeader = new GLabel("NAME");
         nameHeader.setFont(new Font("Monospaced", Font.BOLD, 18));
         nameHeader.setColor(Color.YELLOW);
         nameHeader.setLocation(230, 130);
-        contents.add(nameHeader);
-        mainScreen.add(nameHeader);
+        addToScene(nameHeader);
 
         GLabel scoreHeader = new GLabel("SCORE");
         scoreHeader.setFont(new Font("Monospaced", Font.BOLD, 18));
         scoreHeader.setColor(Color.YELLOW);
         scoreHeader.setLocation(480, 130);
-        contents.add(scoreHeader);
-        mainScreen.add(scoreHeader);
+        addToScene(scoreHeader);
 
-        List<MainApplication.ScoreEntry> entries = mainScreen.getLeaderboardEntries();
-        int row = 0;
         int rowGap = 32;
-
-        for (MainApplication.ScoreEntry e : entries) {
+        for (int row = 0; row < MainApplication.LEADERBOARD_SIZE; row++) {
             int y = 170 + row * rowGap;
-
-            GLabel rank = new GLabel(String.valueOf(row + 1));
-            rank.setFont(new Font("Monospaced", Font.PLAIN, 18));
-            rank.setColor(Color.WHITE);
-            rank.setLocation(180, y);
-            contents.add(rank);
-            mainScreen.add(rank);
-
-            GLabel name = new GLabel(e.name);
-            name.setFont(new Font("Monospaced", Font.PLAIN, 18));
-            name.setColor(Color.WHITE);
-            name.setLocation(230, y);
-            contents.add(name);
-            mainScreen.add(name);
-
-            GLabel score = new GLabel(String.valueOf(e.score));
-            score.setFont(new Font("Monospaced", Font.PLAIN, 18));
-            score.setColor(Color.WHITE);
-            score.setLocation(480, y);
-            contents.add(score);
-            mainScreen.add(score);
-
-            row++;
+            rankLabels[row] = createRowLabel(180, y);
+            nameLabels[row] = createRowLabel(230, y);
+            scoreLabels[row] = createRowLabel(480, y);
         }
     }
 
+    // Only the row text changes between visits
     @Override
-    public void hideContent() {
-        for (GObject g : contents) {
-            mainScreen.remove(g);
+    protected void refreshScene() {
+        List<MainApplication.ScoreEntry> entries = mainScreen.getLeaderboardEntries();
+        for (int row = 0; row < MainApplication.LEADERBOARD_SIZE; row++) {
+            if (row < entries.size()) {
+                MainApplication.ScoreEntry e = entries.get(row);
+                rankLabels[row].setLabel(String.valueOf(row + 1));
+                nameLabels[row].setLabel(e.name);
+                scoreLabels[row].setLabel(String.valueOf(e.score));
+            } else {
+                rankLabels[row].setLabel("");
+                nameLabels[row].setLabel("");
+                scoreLabels[row].setLabel("");
+            }
         }
-        contents.clear();
+    }
+
+    private GLabel createRowLabel(double x, double y) {
+        GLabel label = new GLabel("");
+        label.setFont(ROW_FONT);
+        label.setColor(Color.WHITE);
+        label.setLocation(x, y);
+        addToScene(label);
+        return label;
     }
 
     @Override
     public void mouseClicked(MouseEvent e) {
-        GObject obj = mainScreen.getElementAt(e.getX(), e.getY());
+        GObject obj = getElementAt(e.getX(), e.getY());
         if (obj == backLabel) {
             mainScreen.switchToWelcomeScreen();
         }
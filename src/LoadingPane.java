@@ -0,0 +1,95 @@
+import acm.graphics.GLabel;
+import acm.graphics.GObject;
+import acm.graphics.GRect;
+
+import javax.swing.Timer;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+// Lightweight splash shown while AssetManager decodes the media files.
+// Only plain shapes and text, so it can appear before any image is loaded.
+public class LoadingPane extends GraphicsPane {
+
+    private static final double BAR_W = 360;
+    private static final double BAR_H = 16;
+
+    private final AssetManager assets;
+    private GRect barFill;
+    private GLabel percentLabel;
+    private Timer timer;
+
+    public LoadingPane(MainApplication mainScreen, AssetManager assets) {
+        this.mainScreen = mainScreen;
+        this.assets = assets;
+    }
+
+    @Override
+    public void showContent() {
+        double w = mainScreen.getWidth();
+        double h = mainScreen.getHeight();
+
+        GRect bg = new GRect(0, 0, w, h);
+        bg.setFilled(true);
+        bg.setFillColor(new Color(20, 24, 32));
+        bg.setColor(Color.BLACK);
+        contents.add(bg);
+        mainScreen.add(bg);
+
+        GLabel title = new GLabel("WRECK IT RATS");
+        title.setFont(new Font("Serif", Font.BOLD, 32));
+        title.setColor(Color.WHITE);
+        title.setLocation((w - title.getWidth()) / 2.0, h * 0.40);
+        contents.add(title);
+        mainScreen.add(title);
+
+        double barX = (w - BAR_W) / 2.0;
+        double barY = h * 0.50;
+
+        GRect barBack = new GRect(barX, barY, BAR_W, BAR_H);
+        barBack.setFilled(true);
+        barBack.setFillColor(new Color(60, 60, 70));
+        barBack.setColor(Color.BLACK);
+        contents.add(barBack);
+        mainScreen.add(barBack);
+
+        barFill = new GRect(barX, barY, 0, BAR_H);
+        barFill.setFilled(true);
+        barFill.setFillColor(new Color(230, 190, 60));
+        barFill.setColor(Color.BLACK);
+        contents.add(barFill);
+        mainScreen.add(barFill);
+
+        percentLabel = new GLabel("Loading... 0%");
+        percentLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        percentLabel.setColor(Color.LIGHT_GRAY);
+        percentLabel.setLocation((w - percentLabel.getWidth()) / 2.0, barY + BAR_H + 24);
+        contents.add(percentLabel);
+        mainScreen.add(percentLabel);
+
+        timer = new Timer(50, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateProgress();
+            }
+        });
+        timer.start();
+    }
+
+    @Override
+    public void hideContent() {
+        if (timer != null) timer.stop();
+        for (GObject item : contents) {
+            mainScreen.remove(item);
+        }
+        contents.clear();
+    }
+
+    private void updateProgress() {
+        double p = assets.getProgress();
+        barFill.setSize(BAR_W * p, BAR_H);
+        percentLabel.setLabel("Loading... " + (int) Math.round(p * 100) + "%");
+    }
+}
@@ -6,29 +6,41 @@ import java.awt.Cursor;
 import java.awt.Point;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
 import java.io.File;
 
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.FloatControl;
-
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class MainApplication extends GraphicsProgram {
 
     public static final int WINDOW_WIDTH = 800;
     public static final int WINDOW_HEIGHT = 600;
+    public static final int LEADERBOARD_SIZE = 10;
 
     private int mainVolume = 50;
     private int sfxVolume = 50;
     private int musicVolume = 50;
     private int brightness = 50;
 
+    // Game simulation rate, independent of the display refresh rate;
+    // higher rates cost more CPU but move the boss more smoothly
+    public static final int[] SIMULATION_RATES = {25, 60, 120};
+    private int simulationHz = 25;
+
+    // Level-1 board; bigger arena boards are picked on the command line
+    private BoardConfig boardConfig = BoardConfig.CLASSIC;
+
+    // Boss level as a swarm of this many small bosses (0 = the single boss)
+    private int swarmSize = 0;
+
+    // Recording to play back at startup instead of showing the menu
+    private String replayPath;
+
     // Leaderboard entry
     public static class ScoreEntry {
         public final String name;
@@ -53,15 +65,31 @@ public class MainApplication extends GraphicsProgram {
     private GamePane bossPane; // Boss level
     private LeaderboardPane leaderboardPane;
     private InfoPane infoPane;
+    private LoadingPane loadingPane;
     
-    // Background Music
-    private Clip backgroundMusic;
-    private float musicDecibels = 0f; // stored volume for music
+    // Audio: one software-mixed output line for music + effects
+    private final AudioMixer audioMixer = new AudioMixer();
+    private final SoundBank soundBank = new SoundBank(audioMixer);
+
+    // Images + sounds, decoded in parallel at startup
+    private final AssetManager assets = new AssetManager(soundBank);
+
+    // Spawn tables, read once at startup (every round and replay uses these)
+    private Map<String, SpawnTable> spawnTables;
+
+    // Background music tracks
+    public static final String MENU_MUSIC = "Media/background_music.wav";
+    public static final String BOSS_MUSIC = "Media/boss_music.wav";
+    private String currentMusicPath;
+    private final Set<String> missingMusic = new HashSet<>();  // reported once each
 
 
     // Score overlay
     private Scoreboard scoreboard;
 
+    // Dirty-rectangle repaints (enabled while a game screen is up)
+    private RepaintTracker repaintTracker;
+
     public MainApplication() {
         super();
     }
@@ -75,9 +103,10 @@ public class MainApplication extends GraphicsProgram {
     @Override
     public void init() {
         setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
+        repaintTracker = new RepaintTracker(getGCanvas());
 
-        // --- Apply the custom cursor (hammer) ---
-        setCustomCursor();
+        updateAudioVolumes();
+        audioMixer.start();
     }
 
     @Override
@@ -85,30 +114,79 @@ public class MainApplication extends GraphicsProgram {
         System.out.println("Let's Begin!");
         setupInteractions();
 
+        // decode all media on worker threads behind the splash screen;
+        // panes below only ever see already-loaded assets
+        assets.loadAll();
+        loadingPane = new LoadingPane(this, assets);
+        switchToScreen(loadingPane);
+        spawnTables = SpawnTable.load(SpawnTable.FILE);
+        assets.awaitLoaded();
+
+        // --- Apply the custom cursor (hammer) ---
+        setCustomCursor();
+
         welcomePane = new WelcomePane(this);
         descriptionPane = new DescriptionPane(this);
         settingsPane = new SettingsPane(this);
-        gamePane = new GamePane(this);          // normal level
-        bossPane = new GamePane(this, true);    // boss-only level
+        gamePane = new GamePane(this, boardConfig);  // normal level
+        bossPane = swarmSize > 0
+                ? new GamePane(this, swarmSize)      // swarm boss level
+                : new GamePane(this, true);          // boss-only level
         leaderboardPane = new LeaderboardPane(this);
         infoPane = new InfoPane(this);
 
         scoreboard = new Scoreboard(this);
         scoreboard.update(0);
         
-        playBackgroundMusic("Media/background_music.wav");
+        playBackgroundMusic(MENU_MUSIC);
 
-        switchToScreen(welcomePane);
+        if (replayPath == null || !startReplay(replayPath)) {
+            switchToScreen(welcomePane);
+        }
     }
 
+    // Plays back a recording saved by GamePane (replays/last-level1.rec etc.)
+    // on the level it was recorded on
+    private boolean startReplay(String path) {
+        InputRecording rec;
+        try {
+            rec = InputRecording.load(new File(path));
+        } catch (Exception e) {
+            System.out.println("ERROR loading replay: " + e.getMessage());
+            return false;
+        }
+        GamePane pane = rec.getLevel().equals("boss") ? bossPane : gamePane;
+        if (!pane.startReplay(rec)) return false;
+        switchToScreen(pane);
+        return true;
+    }
+
+    // Optional arguments: the level-1 board, e.g. "arena" or "20x20:0.25",
+    // "swarm:N" for a boss level of N small bosses, and "replay:FILE" to
+    // play back a recording (start with the same board/swarm arguments)
     public static void main(String[] args) {
-        new MainApplication().start();
+        MainApplication app = new MainApplication();
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("swarm:")) {
+                    app.swarmSize = Math.max(0, Integer.parseInt(arg.substring(6)));
+                } else if (arg.startsWith("replay:")) {
+                    app.replayPath = arg.substring(7);
+                } else {
+                    app.boardConfig = BoardConfig.parse(arg);
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println("ERROR in argument " + arg + ": " + e.getMessage());
+            }
+        }
+        app.start();
     }
 
     // ---------- Custom Cursor ----------
     private void setCustomCursor() {
         try {
-            BufferedImage img = ImageIO.read(new File("Media/hammer.png"));
+            BufferedImage img = assets.getImage("hammer.png");
+            if (img == null) throw new IllegalStateException("hammer.png not loaded");
 
             // Hotspot positioned on center of hammer's striking face
             Point hotspot = new Point(18, 28);
@@ -130,71 +208,30 @@ public class MainApplication extends GraphicsProgram {
 
     // ---------- SOUND EFFECT METHOD ----------
     public void playSound(String filePath) {
-        try {
-            File soundFile = new File(filePath);
-            if (!soundFile.exists()) {
-                System.out.println("Sound not found: " + filePath);
-                return;
-            }
-
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundFile);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioStream);
-
-            // --- Apply volume (SFX Volume 0–100 converted to decibels) ---
-            FloatControl gain = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            float volumeDb = (float)(Math.log10(sfxVolume / 100.0) * 20.0);
-            gain.setValue(volumeDb);
-
-            clip.start();
-
-        } catch (Exception e) {
-            System.out.println("ERROR playing sound: " + e.getMessage());
-        }
+        soundBank.play(filePath);
     }
     
-    // Background Music
+    // Background Music (streamed; switching tracks crossfades)
     public void playBackgroundMusic(String filePath) {
-        try {
-            if (backgroundMusic != null && backgroundMusic.isRunning()) {
-                backgroundMusic.stop();
-            }
-
-            File musicFile = new File(filePath);
-            if (!musicFile.exists()) {
-                System.out.println("Music file not found: " + filePath);
-                return;
-            }
-
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(musicFile);
-
-            backgroundMusic = AudioSystem.getClip();
-            backgroundMusic.open(audioStream);
-
-            // Apply saved music volume
-            FloatControl gain = (FloatControl) backgroundMusic.getControl(FloatControl.Type.MASTER_GAIN);
-            float volumeDb = (float)(Math.log10(musicVolume / 100.0) * 20.0);
-            gain.setValue(volumeDb);
+        if (filePath.equals(currentMusicPath) || missingMusic.contains(filePath)) return;
 
-            backgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
-            backgroundMusic.start();
-
-        } catch (Exception e) {
-            System.out.println("ERROR playing background music: " + e.getMessage());
+        if (!new File(filePath).exists()) {
+            System.out.println("Music file not found: " + filePath);
+            missingMusic.add(filePath);
+            return;
         }
+
+        currentMusicPath = filePath;
+        audioMixer.playMusic(new MusicStream(filePath));
     }
     
     public void updateMusicVolume() {
-        try {
-            if (backgroundMusic == null) return;
-
-            FloatControl gain = (FloatControl) backgroundMusic.getControl(FloatControl.Type.MASTER_GAIN);
-            float volumeDb = (float)(Math.log10(musicVolume / 100.0) * 20.0);
-            gain.setValue(volumeDb);
+        updateAudioVolumes();
+    }
 
-        } catch (Exception e) {
-            System.out.println("ERROR adjusting music volume: " + e.getMessage());
-        }
+    // Push the current slider values to the mixer (gain is applied per voice while mixing)
+    private void updateAudioVolumes() {
+        audioMixer.setVolumes(mainVolume, sfxVolume, musicVolume);
     }
 
 
@@ -244,6 +281,9 @@ public class MainApplication extends GraphicsProgram {
         newScreen.showContent();
         currentScreen = newScreen;
 
+        // Boss level gets its own track; everything else uses the menu track
+        playBackgroundMusic(newScreen == bossPane ? BOSS_MUSIC : MENU_MUSIC);
+
         // Score only in game screens
         if (newScreen == gamePane || newScreen == bossPane) {
             showScoreboard();
@@ -273,6 +313,18 @@ public class MainApplication extends GraphicsProgram {
         setScore(getScore() + delta);
     }
 
+    public RepaintTracker getRepaintTracker() {
+        return repaintTracker;
+    }
+
+    public AssetManager getAssets() {
+        return assets;
+    }
+
+    public Map<String, SpawnTable> getSpawnTables() {
+        return spawnTables;
+    }
+
     public GObject getElementAtLocation(double x, double y) {
         return getElementAt(x, y);
     }
@@ -284,6 +336,7 @@ public class MainApplication extends GraphicsProgram {
 
     public void setMainVolume(int mainVolume) {
         this.mainVolume = clamp01(mainVolume);
+        updateAudioVolumes();
     }
 
     public int getSfxVolume() {
@@ -292,6 +345,7 @@ public class MainApplication extends GraphicsProgram {
 
     public void setSfxVolume(int sfxVolume) {
         this.sfxVolume = clamp01(sfxVolume);
+        updateAudioVolumes();
     }
 
     public int getMusicVolume() {
@@ -300,6 +354,7 @@ public class MainApplication extends GraphicsProgram {
 
     public void setMusicVolume(int musicVolume) {
         this.musicVolume = clamp01(musicVolume);
+        updateAudioVolumes();
     }
 
     public int getBrightness() {
@@ -310,6 +365,19 @@ public class MainApplication extends GraphicsProgram {
         this.brightness = clamp01(brightness);
     }
 
+    public int getSimulationHz() {
+        return simulationHz;
+    }
+
+    public void setSimulationHz(int hz) {
+        for (int rate : SIMULATION_RATES) {
+            if (rate == hz) {
+                simulationHz = hz;
+                return;
+            }
+        }
+    }
+
     private int clamp01(int v) {
         if (v < 0) return 0;
         if (v > 100) return 100;
@@ -339,10 +407,15 @@ public class MainApplication extends GraphicsProgram {
         name = name.trim();
         if (name.isEmpty()) name = "Player";
 
-        leaderboard.add(new ScoreEntry(name, score));
-        leaderboard.sort((a, b) -> Integer.compare(b.score, a.score));
-        if (leaderboard.size() > 10) {
-            leaderboard.subList(10, leaderboard.size()).clear();
+        insertScore(leaderboard, new ScoreEntry(name, score), LEADERBOARD_SIZE);
+    }
+
+    // Adds an entry to a best-first leaderboard, keeping the top maxSize
+    static void insertScore(List<ScoreEntry> board, ScoreEntry entry, int maxSize) {
+        board.add(entry);
+        board.sort((a, b) -> Integer.compare(b.score, a.score));
+        if (board.size() > maxSize) {
+            board.subList(maxSize, board.size()).clear();
         }
     }
 
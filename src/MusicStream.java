@@ -0,0 +1,92 @@
+import javax.sound.sampled.AudioInputStream;
+
+import java.io.File;
+
+// Streams one music file in small chunks on a background thread into a
+// fixed ring buffer that the AudioMixer drains. The file is reopened at
+// the end so the track loops without a gap. Memory use is bounded by the
+// ring buffer size, not the track length.
+public class MusicStream implements Runnable {
+
+    private static final int RING_FRAMES = 16384;      // ~370 ms of audio
+    private static final int CHUNK_BYTES = 4096;
+
+    private final String filePath;
+    private final short[] ring = new short[RING_FRAMES * 2];
+
+    // read/write counters in samples; only ever increase
+    private volatile long writePos = 0;
+    private volatile long readPos = 0;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public MusicStream(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "music-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    // Called from the mixer thread: copies up to count samples, returns how many
+    // were available (the rest of dst is left untouched)
+    public int read(short[] dst, int count) {
+        long r = readPos;
+        int available = (int) Math.min(count, writePos - r);
+        for (int i = 0; i < available; i++) {
+            dst[i] = ring[(int) ((r + i) % ring.length)];
+        }
+        readPos = r + available;
+        return available;
+    }
+
+    @Override
+    public void run() {
+        byte[] chunk = new byte[CHUNK_BYTES];
+        int carry = -1;  // low byte of a sample split across two reads
+
+        while (running) {
+            try (AudioInputStream in = SoundBank.openMixerFormat(new File(filePath))) {
+                int n;
+                while (running && (n = in.read(chunk)) > 0) {
+                    for (int i = 0; i < n && running; i++) {
+                        if (carry < 0) {
+                            carry = chunk[i] & 0xff;
+                            continue;
+                        }
+                        waitForSpace();
+                        ring[(int) (writePos % ring.length)] = (short) (carry | (chunk[i] << 8));
+                        writePos++;
+                        carry = -1;
+                    }
+                }
+            } catch (Exception e) {
+                System.out.println("ERROR streaming music: " + e.getMessage());
+                running = false;
+            }
+        }
+    }
+
+    private void waitForSpace() {
+        while (running && writePos - readPos >= ring.length) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import acm.graphics.GCompound;
+import acm.graphics.GContainer;
+import acm.graphics.GImage;
+import acm.graphics.GObject;
+import acm.graphics.GOval;
+
+import java.awt.Color;
+
+// The on-screen half of a rat: its sprite node in a render layer. EDT only.
+// GamePane makes one per rat the first time it draws that rat and keeps it
+// for as long as the rat exists, so the engine's rats stay plain game state.
+public class RatNode {
+
+    private final GCompound node = new GCompound();
+    private final GContainer layer;
+    private final RepaintTracker tracker;
+
+    // sprite box relative to the node's location, as in Ratdg
+    private final double spriteX, spriteY, spriteW, spriteH;
+
+    private boolean shown = false;
+    int drawnFrame;  // last frame the rat was in a snapshot
+
+    public RatNode(Ratdg rat, GContainer layer, RepaintTracker tracker) {
+        this.layer = layer;
+        this.tracker = tracker;
+        spriteX = rat.getSpriteX();
+        spriteY = rat.getSpriteY();
+        spriteW = rat.getSpriteWidth();
+        spriteH = rat.getSpriteHeight();
+        node.add(createSprite(rat.getSpritePath(), spriteW, spriteH), spriteX, spriteY);
+    }
+
+    public boolean isShown() {
+        return shown;
+    }
+
+    public void attach() {
+        if (shown) return;
+        layer.add(node);
+        shown = true;
+        markDirty();
+    }
+
+    public void detach() {
+        if (!shown) return;
+        markDirty();
+        layer.remove(node);
+        shown = false;
+    }
+
+    // Places the sprite at an (interpolated) position, pop-up offset included
+    public void drawAt(double x, double y) {
+        if (x == node.getX() && y == node.getY()) return;
+        if (shown) markDirty();
+        node.setLocation(x, y);
+        if (shown) markDirty();
+    }
+
+    // The sprite's box is known, so no getBounds() (which allocates) per frame
+    private void markDirty() {
+        tracker.markDirty(node.getX() + spriteX, node.getY() + spriteY, spriteW, spriteH);
+    }
+
+    private static GObject createSprite(String path, double width, double height) {
+        try {
+            // shared pre-scaled image: no disk access or rescaling per rat
+            return new GImage(SpriteCache.get(path, (int) width, (int) height));
+        } catch (Exception ex) {
+            GOval fallback = new GOval(0, 0, width, height);
+            fallback.setFilled(true);
+            fallback.setFillColor(new Color(160, 160, 160));
+            fallback.setColor(Color.BLACK);
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Per-RatType pool of reusable rats. GamePane acquires a rat when it spawns
+// one and releases it once it has despawned; Ratdg.onSpawn resets all
+// per-spawn state, so a recycled rat behaves like a new one.
+// All rats from one pool share a sprite scale (the board's hole size).
+public class RatPool {
+
+    private final int capacityPerType;
+    private final double spriteScale;
+    private final Map<RatType, ArrayDeque<Ratdg>> free = new EnumMap<>(RatType.class);
+
+    private int hits = 0;
+    private int misses = 0;
+
+    public RatPool(int capacityPerType) {
+        this(capacityPerType, 1);
+    }
+
+    public RatPool(int capacityPerType, double spriteScale) {
+        this.capacityPerType = capacityPerType;
+        this.spriteScale = spriteScale;
+        for (RatType type : RatType.values()) {
+            free.put(type, new ArrayDeque<>(capacityPerType));
+        }
+    }
+
+    // Create rats up front so the first round doesn't allocate either
+    public void prewarm(RatType type, int count) {
+        ArrayDeque<Ratdg> list = free.get(type);
+        int target = Math.min(count, capacityPerType);
+        while (list.size() < target) {
+            list.push(create(type));
+        }
+    }
+
+    public Ratdg acquire(RatType type) {
+        Ratdg rat = free.get(type).poll();
+        if (rat != null) {
+            hits++;
+            return rat;
+        }
+        misses++;
+        return create(type);
+    }
+
+    // Rat must already be despawned; extras beyond capacity are dropped
+    public void release(Ratdg rat) {
+        ArrayDeque<Ratdg> list = free.get(rat.getType());
+        if (list.size() < capacityPerType) {
+            list.push(rat);
+        }
+    }
+
+    public double getSpriteScale() {
+        return spriteScale;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RatPool[hits=" + hits + ", misses=" + misses + "]";
+    }
+
+    private Ratdg create(RatType type) {
+        Ratdg rat;
+        switch (type) {
+            case BONUS: rat = new BonusRat(); break;
+            case TRAP:  rat = new TrapRat(); break;
+            case BOSS:  rat = new BossRat(); break;
+            default:    rat = new NormalRat(); break;
+        }
+        rat.setSpriteScale(spriteScale);
+        return rat;
+    }
+}
@@ -1,9 +1,8 @@
-import acm.graphics.GCompound;
-import acm.graphics.GImage;
-import acm.graphics.GOval;
-
-import java.awt.Color;
+import java.awt.image.BufferedImage;
 
+// A rat's game state: hole, position, spawn time and the hit box of its
+// sprite, owned by the simulation thread. Nothing here is drawn; GamePane's
+// renderer keeps a RatNode per rat and places it from published snapshots.
 public abstract class Ratdg {
     protected RatType type;
     protected int points;
@@ -11,13 +10,31 @@ public abstract class Ratdg {
     protected boolean visible;
     protected Hole hole;
 
-    protected final GCompound node = new GCompound();
-    protected final MainApplication app;
+    // Simulation state; the renderer interpolates from prev to current
+    private static final int POP_MS = 150;        // time to rise out of the hole
+    private static final double POP_DEPTH = 24;   // how far below the rim it starts
+    private double x, y, prevX, prevY;
+    private long spawnTimeMs;
+
+    // Despawns the rat when its lifetime is up (scheduled on spawn)
+    private final TimerWheel.Event expiry = new TimerWheel.Event() {
+        @Override
+        protected void fire() {
+            despawn();
+        }
+    };
+
+    // Sprite bounds relative to (x, y), for hit tests and for drawing, and
+    // the sprite's shared opacity mask (null when the image is missing)
+    private double hitX, hitY, hitW, hitH;
+    private AlphaMask hitMask;
 
-    private int ageMs = 0;
+    // Sprite as declared by the subclass, and the board's scale for it
+    private String spritePath;
+    private double spriteOffsetX, spriteOffsetY, spriteWidth, spriteHeight;
+    private double spriteScale = 1;
 
-    protected Ratdg(MainApplication app, RatType type, int points, int lifetimeMs) {
-        this.app = app;
+    protected Ratdg(RatType type, int points, int lifetimeMs) {
         this.type = type;
         this.points = points;
         this.lifetimeMs = lifetimeMs;
@@ -25,41 +42,27 @@ public abstract class Ratdg {
         this.hole = null;
     }
 
-    public void onSpawn(Hole h) {
-        this.hole = h;
-        node.setLocation(h.getX(), h.getY());
-        show();
-        ageMs = 0;
-    }
+    // -------- simulation thread --------
 
-    public void onTick(int deltaMs) {
-        ageMs += deltaMs;
-        if (lifetimeMs > 0 && ageMs >= lifetimeMs) {
-            despawn();
+    // timers is the clock rat lifetimes run on
+    public void onSpawn(Hole h, TimerWheel timers) {
+        this.hole = h;
+        x = prevX = h.getX();
+        y = prevY = h.getY();
+        spawnTimeMs = timers.now();
+        visible = true;
+        if (lifetimeMs > 0) {
+            timers.schedule(expiry, lifetimeMs);
         }
     }
 
     public void despawn() {
-        hide();
+        expiry.cancel();
+        visible = false;
         if (hole != null) {
             hole.clearRat(this);
             hole = null;
         }
-        ageMs = 0;
-    }
-
-    public void show() {
-        if (!visible) {
-            app.add(node);
-            visible = true;
-        }
-    }
-
-    public void hide() {
-        if (visible) {
-            app.remove(node);
-            visible = false;
-        }
     }
 
     public boolean isVisible() {
@@ -74,41 +77,166 @@ public abstract class Ratdg {
         return type;
     }
 
-    public boolean containsPoint(double x, double y) {
-        return node.contains(x, y);
+    // Lifetime for the next spawns (0: stays until whacked)
+    public void setLifetimeMs(int lifetimeMs) {
+        this.lifetimeMs = lifetimeMs;
     }
 
-    protected void setSpriteFromFile(String path, double offsetX, double offsetY, double width, double height) {
-        GImage img;
-        try {
-            img = new GImage(path);
-            if (width > 0 && height > 0) {
-                img.setSize(width, height);
-            }
-            node.add(img, offsetX, offsetY);
-        } catch (Exception ex) {
-            GOval fallback = new GOval(
-                    0, 0,
-                    (width > 0 ? width : 40),
-                    (height > 0 ? height : 40)
-            );
-            fallback.setFilled(true);
-            fallback.setFillColor(new Color(160, 160, 160));
-            fallback.setColor(Color.BLACK);
-            node.add(fallback, offsetX, offsetY);
-        }
+    // Middle of the sprite where the simulation has it at time nowMs, i.e.
+    // where a player would aim
+    public double getAimX() {
+        return x + hitX + hitW / 2;
+    }
+
+    public double getAimY(long nowMs) {
+        return y + popOffset(getAgeMs(nowMs)) + hitY + hitH / 2;
+    }
+
+    // Tests against the sprite where the simulation has it at time nowMs:
+    // bounding box first, then the opaque pixels, so transparent corners miss
+    public boolean containsPoint(double px, double py, long nowMs) {
+        double left = x + hitX;
+        double top = y + popOffset(getAgeMs(nowMs)) + hitY;
+        if (px < left || px >= left + hitW || py < top || py >= top + hitH) return false;
+        return hitMask == null || hitMask.contains((int) (px - left), (int) (py - top));
+    }
+
+    // Box the sprite can cover at the current position, pop-up travel included
+    public double getReachX() {
+        return x + hitX;
+    }
+
+    public double getReachY() {
+        return y + hitY;
+    }
+
+    public double getReachWidth() {
+        return hitW;
+    }
+
+    public double getReachHeight() {
+        return hitH + POP_DEPTH * spriteScale;
     }
 
     // --- NEW: allow moving / querying rat position (used for boss movement) ---
     public double getX() {
-        return node.getX();
+        return x;
     }
 
     public double getY() {
-        return node.getY();
+        return y;
+    }
+
+    public double getPrevX() {
+        return prevX;
     }
 
+    public double getPrevY() {
+        return prevY;
+    }
+
+    // Time since spawning on the rat clock, 0 for times before the spawn
+    public int getAgeMs(long nowMs) {
+        return (int) Math.max(0, nowMs - spawnTimeMs);
+    }
+
+    // Moves the rat as one simulation step (drawn interpolated from the old spot)
+    public void moveTo(double x, double y) {
+        prevX = this.x;
+        prevY = this.y;
+        this.x = x;
+        this.y = y;
+    }
+
+    // Jumps straight to a position, with no interpolation from the old one
     public void setPosition(double x, double y) {
-        node.setLocation(x, y);
+        this.x = prevX = x;
+        this.y = prevY = y;
+    }
+
+    // -------- sprite --------
+
+    // What a renderer draws: the image, and its box relative to (x, y)
+    public String getSpritePath() {
+        return spritePath;
+    }
+
+    public double getSpriteX() {
+        return hitX;
+    }
+
+    public double getSpriteY() {
+        return hitY;
+    }
+
+    public double getSpriteWidth() {
+        return hitW;
+    }
+
+    public double getSpriteHeight() {
+        return hitH;
+    }
+
+    // Pop-up: starts POP_DEPTH below the hole and eases out to the rim;
+    // added to y at the given age
+    public double popOffset(double age) {
+        if (age >= POP_MS) return 0;
+        double t = 1.0 - age / POP_MS;
+        return POP_DEPTH * spriteScale * t * t;
+    }
+
+    public double getSpriteScale() {
+        return spriteScale;
+    }
+
+    // Resizes the sprite (and its hit box) for boards with smaller holes.
+    // Only call on a rat that has never been spawned or drawn, e.g. right
+    // after RatPool creates it.
+    public void setSpriteScale(double scale) {
+        if (scale == spriteScale) return;
+        spriteScale = scale;
+        buildSprite();
+    }
+
+    protected void setSpriteFromFile(String path, double offsetX, double offsetY, double width, double height) {
+        spritePath = path;
+        spriteOffsetX = offsetX;
+        spriteOffsetY = offsetY;
+        spriteWidth = width;
+        spriteHeight = height;
+        buildSprite();
+    }
+
+    private void buildSprite() {
+        String path = spritePath;
+        double offsetX = spriteOffsetX * spriteScale;
+        double offsetY = spriteOffsetY * spriteScale;
+        double width = scaledSize(spriteWidth);
+        double height = scaledSize(spriteHeight);
+        hitMask = null;
+
+        double w, h;
+        try {
+            // shared pre-scaled image and mask: no disk access or rescaling per rat
+            BufferedImage img = SpriteCache.get(path, (int) width, (int) height);
+            w = img.getWidth();
+            h = img.getHeight();
+            hitMask = SpriteCache.getMask(path, (int) width, (int) height);
+        } catch (Exception ex) {
+            // drawn as a placeholder oval of the declared size
+            w = width > 0 ? width : 40;
+            h = height > 0 ? height : 40;
+        }
+        hitX = offsetX;
+        hitY = offsetY;
+        hitW = w;
+        hitH = h;
+    }
+
+    // whole pixels so the cached image and mask match the drawn size;
+    // sizes <= 0 (natural image size) are left alone
+    private double scaledSize(double size) {
+        if (size <= 0) return size;
+        return Math.max(1, Math.round(size * spriteScale));
     }
 }
@@ -0,0 +1,10 @@
+// Draw layers, back to front
+public enum RenderLayer {
+    BACKGROUND,
+    HOLES,
+    RATS,
+    BOSS,
+    HUD,
+    OVERLAY,
+    CURSOR
+}
@@ -0,0 +1,51 @@
+import acm.graphics.GCompound;
+import acm.graphics.GObject;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Named draw layers with a fixed back-to-front order. Each layer is a
+// SceneGroup added once to the pane's scene, so adding an object to a layer
+// is an append to that layer only and nothing ever needs sendToFront.
+public class RenderLayers {
+
+    private final Map<RenderLayer, SceneGroup> groups = new EnumMap<>(RenderLayer.class);
+
+    public RenderLayers() {
+        for (RenderLayer layer : RenderLayer.values()) {
+            groups.put(layer, new SceneGroup());
+        }
+    }
+
+    // Adds every layer to the container in draw order
+    public void addTo(GCompound container) {
+        for (RenderLayer layer : RenderLayer.values()) {
+            container.add(groups.get(layer), 0, 0);
+        }
+    }
+
+    public GCompound get(RenderLayer layer) {
+        return groups.get(layer);
+    }
+
+    public void add(RenderLayer layer, GObject obj) {
+        groups.get(layer).add(obj);
+    }
+
+    public void remove(RenderLayer layer, GObject obj) {
+        SceneGroup group = groups.get(layer);
+        if (obj.getParent() == group) {
+            group.remove(obj);
+        }
+    }
+
+    public void clear(RenderLayer layer) {
+        groups.get(layer).removeAll();
+    }
+
+    public void clearAll() {
+        for (SceneGroup group : groups.values()) {
+            group.removeAll();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import acm.graphics.GCanvas;
+import acm.graphics.GObject;
+import acm.graphics.GRectangle;
+
+import javax.swing.SwingUtilities;
+
+// Dirty-rectangle repainting for the ACM canvas. While enabled, the canvas
+// stops repainting itself on every GObject change; callers mark the bounds
+// of whatever moved or changed (before and after the change) and only those
+// regions are repainted, once, at the end of the current EDT event.
+//
+// Overlapping regions are merged; disjoint ones (e.g. the timer in the top
+// bar and a rat on the board) are painted separately so a small change in
+// each corner doesn't repaint the whole frame.
+public class RepaintTracker {
+
+    private static final int MAX_REGIONS = 8;
+    private static final int MARGIN = 2;  // covers outlines / antialiasing
+
+    private final GCanvas canvas;
+    private boolean enabled = false;
+
+    // dirty regions as [x0, y0, x1, y1]
+    private final double[] x0 = new double[MAX_REGIONS];
+    private final double[] y0 = new double[MAX_REGIONS];
+    private final double[] x1 = new double[MAX_REGIONS];
+    private final double[] y1 = new double[MAX_REGIONS];
+    private int regionCount = 0;
+    private boolean fullRepaint = false;
+
+    private boolean flushScheduled = false;
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled = false;
+            flush();
+        }
+    };
+
+    public RepaintTracker(GCanvas canvas) {
+        this.canvas = canvas;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+        canvas.setAutoRepaintFlag(!enabled);
+        regionCount = 0;
+        fullRepaint = false;
+        canvas.repaint();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Call before and after changing obj so both old and new areas repaint.
+    // ACM's getBounds() allocates; per-frame callers that know their
+    // extent use the rectangle form below instead.
+    public void markDirty(GObject obj) {
+        if (!enabled || obj == null) return;
+        GRectangle b = obj.getBounds();
+        markDirty(b.getX(), b.getY(), b.getWidth(), b.getHeight());
+    }
+
+    public void markDirty(double x, double y, double w, double h) {
+        if (!enabled) return;
+        scheduleFlush();
+        if (fullRepaint) return;
+
+        double ax = x - MARGIN, ay = y - MARGIN;
+        double bx = x + w + MARGIN, by = y + h + MARGIN;
+
+        // merge into an overlapping region if there is one
+        for (int i = 0; i < regionCount; i++) {
+            if (ax <= x1[i] && bx >= x0[i] && ay <= y1[i] && by >= y0[i]) {
+                if (ax < x0[i]) x0[i] = ax;
+                if (ay < y0[i]) y0[i] = ay;
+                if (bx > x1[i]) x1[i] = bx;
+                if (by > y1[i]) y1[i] = by;
+                return;
+            }
+        }
+
+        if (regionCount == MAX_REGIONS) {
+            // out of slots: fold into the last region
+            int i = MAX_REGIONS - 1;
+            if (ax < x0[i]) x0[i] = ax;
+            if (ay < y0[i]) y0[i] = ay;
+            if (bx > x1[i]) x1[i] = bx;
+            if (by > y1[i]) y1[i] = by;
+            return;
+        }
+
+        x0[regionCount] = ax;
+        y0[regionCount] = ay;
+        x1[regionCount] = bx;
+        y1[regionCount] = by;
+        regionCount++;
+    }
+
+    // For big structural changes (overlays, phase changes)
+    public void markAllDirty() {
+        if (!enabled) return;
+        fullRepaint = true;
+        regionCount = 0;
+        scheduleFlush();
+    }
+
+    public void flush() {
+        if (fullRepaint) {
+            canvas.repaint();
+        } else {
+            for (int i = 0; i < regionCount; i++) {
+                int x = (int) Math.floor(x0[i]);
+                int y = (int) Math.floor(y0[i]);
+                canvas.paintImmediately(x, y,
+                        (int) Math.ceil(x1[i]) - x,
+                        (int) Math.ceil(y1[i]) - y);
+            }
+        }
+        regionCount = 0;
+        fullRepaint = false;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        SwingUtilities.invokeLater(flushTask);
+    }
+}
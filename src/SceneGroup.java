@@ -0,0 +1,18 @@
+import acm.graphics.GCompound;
+import acm.graphics.GObject;
+
+// A GCompound used only for grouping (pane scenes, render layers).
+// Hit lookups see through groups to the object that was actually clicked.
+public class SceneGroup extends GCompound {
+
+    // Topmost non-group object at canvas point (x, y), or null
+    public static GObject resolve(GObject obj, double x, double y) {
+        while (obj instanceof SceneGroup) {
+            SceneGroup group = (SceneGroup) obj;
+            x -= group.getX();
+            y -= group.getY();
+            obj = group.getElementAt(x, y);
+        }
+        return obj;
+    }
+}
@@ -20,6 +20,17 @@ public class Scoreboard {
     private int displayedScore = 0;
     private boolean visible = false;
 
+    // Label text and width per score, made the first time a score is shown,
+    // so updating to a score seen before allocates nothing
+    private static final int MIN_CACHED_SCORE = -1000;
+    private static final int MAX_CACHED_SCORE = 20000;
+    private final String[] scoreText = new String[MAX_CACHED_SCORE - MIN_CACHED_SCORE + 1];
+    private final double[] scoreWidth = new double[scoreText.length];
+
+    // panel size, kept here because ACM's getWidth()/getBounds() allocate
+    private final double labelHeight;
+    private double panelW, panelH;
+
     private Anchor anchor = Anchor.TOP_RIGHT;
     private int padding = 10;
     private int hPad = 10, vPad = 6;
@@ -38,16 +49,31 @@ public class Scoreboard {
 
         panel.add(bg, 0, 0);
         panel.add(scoreLabel, hPad, vPad + scoreLabel.getAscent());
+        labelHeight = scoreLabel.getAscent() + scoreLabel.getDescent();
 
-        layoutPanel();
+        layoutPanel(scoreLabel.getWidth());
         placePanel();
     }
 
     public void update(int score) {
+        if (visible) markDirty();
         displayedScore = score;
-        scoreLabel.setLabel("Score: " + displayedScore);
-        layoutPanel();
+        int i = score - MIN_CACHED_SCORE;
+        if (i >= 0 && i < scoreText.length) {
+            if (scoreText[i] == null) {
+                scoreText[i] = "Score: " + score;
+                scoreLabel.setLabel(scoreText[i]);
+                scoreWidth[i] = scoreLabel.getWidth();
+            } else {
+                scoreLabel.setLabel(scoreText[i]);
+            }
+            layoutPanel(scoreWidth[i]);
+        } else {
+            scoreLabel.setLabel("Score: " + score);
+            layoutPanel(scoreLabel.getWidth());
+        }
         placePanel();
+        if (visible) markDirty();
     }
 
     public void show() {
@@ -55,6 +81,7 @@ public class Scoreboard {
             placePanel();
             mainScreen.add(panel);
             visible = true;
+            markDirty();
         }
     }
 
@@ -71,6 +98,7 @@ public class Scoreboard {
 
     public void hide() {
         if (visible) {
+            markDirty();
             mainScreen.remove(panel);
             visible = false;
         }
@@ -90,9 +118,17 @@ public class Scoreboard {
         return displayedScore;
     }
 
-    private void layoutPanel() {
-        double w = scoreLabel.getWidth() + hPad * 2;
-        double h = scoreLabel.getAscent() + scoreLabel.getDescent() + vPad * 2;
+    private void markDirty() {
+        RepaintTracker tracker = mainScreen.getRepaintTracker();
+        if (tracker != null) tracker.markDirty(panel.getX(), panel.getY(), panelW, panelH);
+    }
+
+    private void layoutPanel(double labelWidth) {
+        double w = labelWidth + hPad * 2;
+        double h = labelHeight + vPad * 2;
+        if (w == panelW && h == panelH) return;
+        panelW = w;
+        panelH = h;
         bg.setSize(w, h);
     }
 
@@ -100,8 +136,8 @@ public class Scoreboard {
         if (mainScreen == null) return;
         double canvasW = mainScreen.getWidth();
         double canvasH = mainScreen.getHeight();
-        double pw = bg.getWidth();
-        double ph = bg.getHeight();
+        double pw = panelW;
+        double ph = panelH;
 
         double x = padding, y = padding;
         switch (anchor) {
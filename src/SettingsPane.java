@@ -33,20 +33,40 @@ public class SettingsPane extends GraphicsPane {
     private Slider activeSlider = null;
     private GRect panelBg;
 
+    // Simulation rate: a button that cycles through MainApplication.SIMULATION_RATES
+    private GRect simRateButton;
+    private GLabel simRateLabel;
+    private int simRateHz;
+
     @Override
     public void showContent() {
-        addUI();
+        attachScene();
     }
 
     @Override
     public void hideContent() {
-        for (GObject item : contents) {
-            mainScreen.remove(item);
-        }
-        contents.clear();
+        activeSlider = null;
+        detachScene();
+    }
+
+    // Sliders snap back to the current settings on every visit
+    @Override
+    protected void refreshScene() {
+        setSliderValue(mainVol, mainScreen.getMainVolume());
+        setSliderValue(sfxVol, mainScreen.getSfxVolume());
+        setSliderValue(musicVol, mainScreen.getMusicVolume());
+        setSliderValue(brightness, mainScreen.getBrightness());
+        setSimRate(mainScreen.getSimulationHz());
     }
 
-    private void addUI() {
+    private void setSliderValue(Slider s, int value) {
+        s.value = value;
+        updateSliderPosition(s);
+    }
+
+    // Panel, labels and slider shapes are built once
+    @Override
+    protected void buildScene() {
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
 
@@ -54,8 +74,7 @@ public class SettingsPane extends GraphicsPane {
         panelBg.setFilled(true);
         panelBg.setFillColor(new Color(240, 240, 240));
         panelBg.setColor(new Color(80, 80, 80));
-        contents.add(panelBg);
-        mainScreen.add(panelBg);
+        addToScene(panelBg);
 
         title = new GLabel("SETTINGS");
         title.setFont(new Font("Monospaced", Font.BOLD, 30));
@@ -64,17 +83,17 @@ public class SettingsPane extends GraphicsPane {
                 panelBg.getX() + (panelBg.getWidth() - title.getWidth()) / 2.0,
                 panelBg.getY() + 50
         );
-        contents.add(title);
-        mainScreen.add(title);
+        addToScene(title);
 
         int baseX = (int) panelBg.getX() + 40;
         int row1Y = (int) panelBg.getY() + 110;
-        int rowGap = 70;
+        int rowGap = 56;
 
         mainVol = createSlider("MAIN VOLUME", baseX, row1Y, mainScreen.getMainVolume());
         sfxVol = createSlider("SFX", baseX, row1Y + rowGap, mainScreen.getSfxVolume());
         musicVol = createSlider("MUSIC", baseX, row1Y + 2 * rowGap, mainScreen.getMusicVolume());
         brightness = createSlider("BRIGHTNESS", baseX, row1Y + 3 * rowGap, mainScreen.getBrightness());
+        createSimRateRow(baseX, row1Y + 4 * rowGap);
 
         int btnY = (int) (panelBg.getY() + panelBg.getHeight() - 70);
         cancelButton = createButton(baseX + 30, btnY, 150, 45, "CANCEL");
@@ -91,34 +110,71 @@ public class SettingsPane extends GraphicsPane {
         s.label.setFont(new Font("Monospaced", Font.BOLD, 18));
         s.label.setColor(new Color(30, 30, 30));
         s.label.setLocation(x, y);
-        contents.add(s.label);
-        mainScreen.add(s.label);
+        addToScene(s.label);
 
         s.track = new GRect(x + 200, y - 18, 260, 10);
         s.track.setFilled(true);
         s.track.setFillColor(new Color(200, 200, 200));
         s.track.setColor(new Color(100, 100, 100));
-        contents.add(s.track);
-        mainScreen.add(s.track);
+        addToScene(s.track);
 
         s.handle = new GRect(0, 0, 18, 28);
         s.handle.setFilled(true);
         s.handle.setFillColor(new Color(80, 80, 80));
         s.handle.setColor(Color.BLACK);
         updateSliderPosition(s);
-        contents.add(s.handle);
-        mainScreen.add(s.handle);
+        addToScene(s.handle);
 
         return s;
     }
 
+    private void createSimRateRow(int x, int y) {
+        GLabel label = new GLabel("SIM RATE");
+        label.setFont(new Font("Monospaced", Font.BOLD, 18));
+        label.setColor(new Color(30, 30, 30));
+        label.setLocation(x, y);
+        addToScene(label);
+
+        simRateButton = new GRect(x + 200, y - 24, 120, 32);
+        simRateButton.setFilled(true);
+        simRateButton.setFillColor(new Color(200, 200, 200));
+        simRateButton.setColor(new Color(100, 100, 100));
+        addToScene(simRateButton);
+
+        simRateLabel = new GLabel("");
+        simRateLabel.setFont(new Font("Monospaced", Font.BOLD, 16));
+        simRateLabel.setColor(new Color(30, 30, 30));
+        addToScene(simRateLabel);
+        setSimRate(mainScreen.getSimulationHz());
+    }
+
+    private void setSimRate(int hz) {
+        simRateHz = hz;
+        simRateLabel.setLabel(hz + " Hz");
+        simRateLabel.setLocation(
+                simRateButton.getX() + (simRateButton.getWidth() - simRateLabel.getWidth()) / 2.0,
+                simRateButton.getY() + simRateButton.getHeight() * 0.7
+        );
+    }
+
+    private void cycleSimRate() {
+        int[] rates = MainApplication.SIMULATION_RATES;
+        int next = rates[0];
+        for (int i = 0; i < rates.length; i++) {
+            if (rates[i] == simRateHz) {
+                next = rates[(i + 1) % rates.length];
+                break;
+            }
+        }
+        setSimRate(next);
+    }
+
     private GRect createButton(int x, int y, int width, int height, String text) {
         GRect button = new GRect(x, y, width, height);
         button.setFilled(true);
         button.setFillColor(new Color(60, 60, 60));
         button.setColor(Color.BLACK);
-        contents.add(button);
-        mainScreen.add(button);
+        addToScene(button);
 
         GLabel label = new GLabel(text);
         label.setFont(new Font("Monospaced", Font.BOLD, 18));
@@ -127,8 +183,7 @@ public class SettingsPane extends GraphicsPane {
                 x + (width - label.getWidth()) / 2.0,
                 y + height * 0.65
         );
-        contents.add(label);
-        mainScreen.add(label);
+        addToScene(label);
 
         if (text.equals("SAVE")) saveLabel = label;
         if (text.equals("CANCEL")) cancelLabel = label;
@@ -145,7 +200,7 @@ public class SettingsPane extends GraphicsPane {
 
     @Override
     public void mouseClicked(MouseEvent e) {
-        GObject obj = mainScreen.getElementAt(e.getX(), e.getY());
+        GObject obj = getElementAt(e.getX(), e.getY());
         if (obj == null) return;
 
         if (obj == saveButton || obj == saveLabel) {
@@ -153,6 +208,7 @@ public class SettingsPane extends GraphicsPane {
             mainScreen.setSfxVolume(sfxVol.value);
             mainScreen.setMusicVolume(musicVol.value);
             mainScreen.setBrightness(brightness.value);
+            mainScreen.setSimulationHz(simRateHz);
 
             if (returnToGame) {
             	mainScreen.playSound("Media/hammer_hit.wav");
@@ -161,6 +217,9 @@ public class SettingsPane extends GraphicsPane {
             	mainScreen.playSound("Media/hammer_hit.wav");
                 mainScreen.switchToWelcomeScreen();
             }
+        } else if (obj == simRateButton || obj == simRateLabel) {
+            mainScreen.playSound("Media/hammer_hit.wav");
+            cycleSimRate();
         } else if (obj == cancelButton || obj == cancelLabel || obj == panelBg) {
             if (returnToGame) {
             	mainScreen.playSound("Media/hammer_hit.wav");
@@ -174,7 +233,7 @@ public class SettingsPane extends GraphicsPane {
 
     @Override
     public void mousePressed(MouseEvent e) {
-        GObject obj = mainScreen.getElementAt(e.getX(), e.getY());
+        GObject obj = getElementAt(e.getX(), e.getY());
         if (obj == null) return;
 
         if (obj == mainVol.handle) activeSlider = mainVol;
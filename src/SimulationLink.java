@@ -0,0 +1,76 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+// The handoff between a game's simulation thread and the EDT: input goes in
+// through a lock-free ring, and each step publishes a snapshot for the EDT.
+// Snapshots are triple-buffered: the simulation fills back, the EDT draws
+// front, and latest holds the newest one neither side is using; whole
+// buffers are swapped through it, so nothing is allocated per step.
+//
+// GamePane runs its steps through here, and AllocationCheck runs the same
+// code to check that a step allocates nothing.
+public final class SimulationLink {
+
+    private final GameEngine engine;
+    private final InputQueue inputs;
+    private final AtomicReference<Snapshot> latest;
+    private Snapshot back;   // simulation thread
+    private int publishedSeq = 0;
+    private Snapshot front;  // EDT
+
+    public SimulationLink(GameEngine engine, int inputCapacity) {
+        this.engine = engine;
+        this.inputs = new InputQueue(inputCapacity);
+        this.latest = new AtomicReference<>(newSnapshot());
+        this.back = newSnapshot();
+        this.front = newSnapshot();
+    }
+
+    private Snapshot newSnapshot() {
+        return new Snapshot(engine.getMaxActiveRats() + 1, engine.getSwarmSize());
+    }
+
+    // EDT: queue a click or power-up (InputRecording event type); false if
+    // the ring is full and it was dropped
+    public boolean offer(int type, double x, double y) {
+        return inputs.offer(type, x, y);
+    }
+
+    // With the loop stopped: drop queued input from the previous round
+    public void clearInputs() {
+        inputs.clear();
+    }
+
+    // Simulation thread: one game step. Queued clicks go to the engine
+    // first, so they are recorded with the tick they are applied on; then
+    // the engine steps and the result is published for the EDT
+    public void step(long simTimeNanos, int stepMs) {
+        if (engine.isFinished()) return;  // the last snapshot shows the ending
+
+        inputs.drainTo(engine);
+        engine.tick(stepMs);
+        publish(simTimeNanos, stepMs);
+    }
+
+    // Simulation thread (or the EDT with the loop stopped): fill the back
+    // buffer and swap it in as the latest
+    public void publish(long simTimeNanos, int stepMs) {
+        back.fill(engine, ++publishedSeq, simTimeNanos, stepMs);
+        back.fresh = true;
+        back = latest.getAndSet(back);
+    }
+
+    // EDT: take the latest snapshot if there is a newer one than front
+    public Snapshot take() {
+        if (latest.get().fresh) {
+            front.fresh = false;
+            front = latest.getAndSet(front);
+        }
+        return front;
+    }
+
+    // With the loop stopped: nothing left to draw
+    public void clear() {
+        back.seq = front.seq = latest.get().seq = 0;
+        back.fresh = front.fresh = latest.get().fresh = false;
+    }
+}
@@ -0,0 +1,95 @@
+// Everything the EDT needs to draw one simulation state. Filled by the
+// simulation thread after a step (see SimulationLink), then only read
+// until it is handed back; the arrays are sized once for the most rats
+// the level can show.
+public final class Snapshot {
+    int seq;  // 0: empty, otherwise counts up per published step
+    boolean fresh;  // published and not yet taken by the EDT
+    long simTimeNanos;
+    int stepMs;
+
+    GameEngine.Phase phase;
+    int timeRemainingMs;
+    int playerHp;
+    int bossHp;
+    int score;
+    boolean freezeBusy, doublePointsBusy, critBusy;  // active or cooling down
+    int cooldownNotices;
+    boolean levelComplete;
+    String endText;
+
+    // visible rats, with their state at the previous and current step
+    int ratCount;
+    Ratdg[] rats;
+    double[] prevX, prevY, x, y;
+    int[] prevAge, age;
+
+    // swarm rats (swarm mode only), at the previous and current step
+    int swarmCount;
+    final double[] swarmPrevX, swarmPrevY, swarmX, swarmY;
+
+    Snapshot(int ratCapacity, int swarmCapacity) {
+        allocateRats(ratCapacity);
+        swarmPrevX = new double[swarmCapacity];
+        swarmPrevY = new double[swarmCapacity];
+        swarmX = new double[swarmCapacity];
+        swarmY = new double[swarmCapacity];
+    }
+
+    private void allocateRats(int n) {
+        rats = new Ratdg[n];
+        prevX = new double[n];
+        prevY = new double[n];
+        x = new double[n];
+        y = new double[n];
+        prevAge = new int[n];
+        age = new int[n];
+    }
+
+    void fill(GameEngine g, int seq, long simTimeNanos, int stepMs) {
+        this.seq = seq;
+        this.simTimeNanos = simTimeNanos;
+        this.stepMs = stepMs;
+
+        phase = g.getPhase();
+        timeRemainingMs = g.getTimeRemainingMs();
+        playerHp = g.getPlayerHp();
+        bossHp = g.getBossHp();
+        score = g.getScore();
+        freezeBusy = g.isFreezeBusy();
+        doublePointsBusy = g.isDoublePointsBusy();
+        critBusy = g.isCritBusy();
+        cooldownNotices = g.getCooldownNotices();
+        levelComplete = g.isLevelComplete();
+        endText = g.getEndText();
+
+        // more rats than the board allows never happens; grow rather than fail
+        if (g.getRatCount() > rats.length) allocateRats(g.getRatCount());
+
+        long prevWorldMs = g.getPrevWorldMs();
+        long worldMs = g.getWorldMs();
+        int k = 0;
+        for (int i = 0; i < g.getRatCount(); i++) {
+            Ratdg r = g.getRat(i);
+            if (!r.isVisible()) continue;
+            rats[k] = r;
+            prevX[k] = r.getPrevX();
+            prevY[k] = r.getPrevY();
+            x[k] = r.getX();
+            y[k] = r.getY();
+            prevAge[k] = r.getAgeMs(prevWorldMs);
+            age[k] = r.getAgeMs(worldMs);
+            k++;
+        }
+        for (int i = k; i < ratCount; i++) {
+            rats[i] = null;  // don't hold on to rats that left
+        }
+        ratCount = k;
+
+        Swarm swarm = g.getSwarm();
+        swarmCount = swarm != null ? swarm.size() : 0;
+        if (swarmCount > 0) {
+            swarm.copyPositions(swarmPrevX, swarmPrevY, swarmX, swarmY);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sound effects decoded once into 16-bit PCM in the mixer's format.
+// Playing an effect just hands the shared sample array to the AudioMixer,
+// which handles voice allocation and stealing.
+public class SoundBank {
+
+    private final AudioMixer mixer;
+    private final Map<String, short[]> sounds = new ConcurrentHashMap<>();
+
+    public SoundBank(AudioMixer mixer) {
+        this.mixer = mixer;
+    }
+
+    // Decode the given files now so the first play has no load cost
+    public void preload(String... filePaths) {
+        for (String path : filePaths) {
+            get(path);
+        }
+    }
+
+    public void play(String filePath) {
+        short[] samples = get(filePath);
+        if (samples == null) return;
+        mixer.play(samples);
+    }
+
+    // Decoded samples for a file, loading it on first use (null if missing).
+    // Safe to call from AssetManager's worker threads.
+    public short[] get(String filePath) {
+        short[] samples = sounds.get(filePath);
+        if (samples == null) {
+            samples = load(filePath);
+            if (samples != null) {
+                short[] raced = sounds.putIfAbsent(filePath, samples);
+                if (raced != null) samples = raced;
+            }
+        }
+        return samples;
+    }
+
+    private static short[] load(String filePath) {
+        File soundFile = new File(filePath);
+        if (!soundFile.exists()) {
+            System.out.println("Sound not found: " + filePath);
+            return null;
+        }
+
+        try (AudioInputStream in = openMixerFormat(soundFile)) {
+            byte[] pcm = readAll(in);
+            short[] samples = new short[pcm.length / 2];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) ((pcm[2 * i] & 0xff) | (pcm[2 * i + 1] << 8));
+            }
+            return samples;
+        } catch (Exception e) {
+            System.out.println("ERROR loading sound: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Opens the file converted to AudioMixer.FORMAT (16-bit stereo little-endian)
+    static AudioInputStream openMixerFormat(File file) throws Exception {
+        AudioInputStream in = AudioSystem.getAudioInputStream(file);
+        AudioFormat src = in.getFormat();
+        if (src.matches(AudioMixer.FORMAT)) {
+            return in;
+        }
+        if (src.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+            AudioFormat pcm = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    src.getSampleRate(),
+                    16,
+                    src.getChannels(),
+                    src.getChannels() * 2,
+                    src.getSampleRate(),
+                    false
+            );
+            in = AudioSystem.getAudioInputStream(pcm, in);
+        }
+        return AudioSystem.getAudioInputStream(AudioMixer.FORMAT, in);
+    }
+
+    private static byte[] readAll(AudioInputStream in) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) > 0) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Uniform grid over a fixed area for point hit tests. Each entry is an
+// axis-aligned box registered in every cell it overlaps, so the entries
+// that can contain a point are exactly those in the point's cell: a
+// lookup costs the same however many entries the grid holds, as long as
+// cells stay small relative to the entries.
+//
+// Not thread-safe; each grid belongs to one thread.
+public class SpatialGrid<T> {
+
+    public static final class Entry<T> {
+        private final T item;
+        private double x, y, w, h;
+        private int col0, row0, col1, row1;
+        private boolean inGrid;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public boolean contains(double px, double py) {
+            return px >= x && px < x + w && py >= y && py < y + h;
+        }
+    }
+
+    private final double cellSize;
+    private final int cols, rows;
+    private final ArrayList<Entry<T>>[] cells;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SpatialGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = (ArrayList<Entry<T>>[]) new ArrayList[cols * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new ArrayList<>(4);
+        }
+    }
+
+    public Entry<T> insert(T item, double x, double y, double w, double h) {
+        Entry<T> e = new Entry<>(item);
+        place(e, x, y, w, h);
+        return e;
+    }
+
+    // Moves/resizes an entry; cheap when it stays within the same cells
+    public void update(Entry<T> e, double x, double y, double w, double h) {
+        if (e.inGrid
+                && col(x) == e.col0 && row(y) == e.row0
+                && col(x + w) == e.col1 && row(y + h) == e.row1) {
+            e.x = x;
+            e.y = y;
+            e.w = w;
+            e.h = h;
+            return;
+        }
+        remove(e);
+        place(e, x, y, w, h);
+    }
+
+    public void remove(Entry<T> e) {
+        if (!e.inGrid) return;
+        for (int r = e.row0; r <= e.row1; r++) {
+            for (int c = e.col0; c <= e.col1; c++) {
+                cells[r * cols + c].remove(e);
+            }
+        }
+        e.inGrid = false;
+    }
+
+    public void clear() {
+        for (int i = 0; i < cells.length; i++) {
+            List<Entry<T>> cell = cells[i];
+            for (int j = 0; j < cell.size(); j++) {
+                cell.get(j).inGrid = false;
+            }
+            cell.clear();
+        }
+    }
+
+    // Every entry that could contain the point (callers still check
+    // contains()). The list is the grid's own: read it, don't keep it.
+    public List<Entry<T>> candidatesAt(double px, double py) {
+        if (px < 0 || py < 0 || px >= cols * cellSize || py >= rows * cellSize) {
+            return Collections.emptyList();
+        }
+        return cells[row(py) * cols + col(px)];
+    }
+
+    // The most recently inserted entry containing the point, or null;
+    // insert in draw order and this matches what's on top
+    public T pick(double px, double py) {
+        List<Entry<T>> cell = candidatesAt(px, py);
+        for (int i = cell.size() - 1; i >= 0; i--) {
+            Entry<T> e = cell.get(i);
+            if (e.contains(px, py)) return e.item;
+        }
+        return null;
+    }
+
+    private void place(Entry<T> e, double x, double y, double w, double h) {
+        e.x = x;
+        e.y = y;
+        e.w = w;
+        e.h = h;
+        e.col0 = col(x);
+        e.row0 = row(y);
+        e.col1 = col(x + w);
+        e.row1 = row(y + h);
+        for (int r = e.row0; r <= e.row1; r++) {
+            for (int c = e.col0; c <= e.col1; c++) {
+                cells[r * cols + c].add(e);
+            }
+        }
+        e.inGrid = true;
+    }
+
+    private int col(double x) {
+        int c = (int) Math.floor(x / cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor(y / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,201 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// What spawns during one phase of one level: the spawn chance per tick,
+// modifiers on it, and a weight per rat type, sampled in O(1) through an
+// AliasTable built once when the table is loaded.
+//
+// Tables come from Media/spawn_tables.txt, so rates can be tuned without a
+// rebuild; a section header names the level and phase it applies to:
+//
+//   [level1 NORMAL]
+//   chance 0.05     # per 40 ms tick, on the classic board
+//   freeze 0.3      # chance multiplier while freeze is on
+//   NORMAL 65       # relative weights, any RatType except BOSS
+//   BONUS 25
+//   TRAP 10
+//
+// Levels are "level1" and "boss"; phases are NORMAL and BOSS. A level and
+// phase without a section spawns nothing.
+public final class SpawnTable {
+
+    public static final String FILE = AssetManager.MEDIA_DIR + "/spawn_tables.txt";
+
+    private final double chance;
+    private final double freezeScale;
+    private final RatType[] types;
+    private final AliasTable picker;
+    private final long hash;  // of the values above, for hash(Map)
+
+    public SpawnTable(double chance, double freezeScale, RatType[] types, double[] weights) {
+        if (types.length != weights.length) {
+            throw new IllegalArgumentException("one weight per rat type");
+        }
+        this.chance = chance;
+        this.freezeScale = freezeScale;
+        this.types = types.clone();
+        this.picker = new AliasTable(weights);
+
+        long h = Double.doubleToLongBits(chance);
+        h = h * 31 + Double.doubleToLongBits(freezeScale);
+        for (int i = 0; i < types.length; i++) {
+            h = h * 31 + types[i].ordinal();
+            h = h * 31 + Double.doubleToLongBits(weights[i]);
+        }
+        this.hash = h;
+    }
+
+    // The built-in level 1 table, used when the file is missing
+    public static Map<String, SpawnTable> defaults() {
+        Map<String, SpawnTable> tables = new HashMap<>();
+        tables.put(key("level1", "NORMAL"), new SpawnTable(0.05, 0.3,
+                new RatType[] {RatType.NORMAL, RatType.BONUS, RatType.TRAP},
+                new double[] {65, 25, 10}));
+        return tables;
+    }
+
+    // Same for the same tables in any run, so a recording can tell whether
+    // it is being replayed against the tables it was recorded with
+    public static long hash(Map<String, SpawnTable> tables) {
+        long h = 17;
+        for (Map.Entry<String, SpawnTable> e : new TreeMap<>(tables).entrySet()) {
+            h = h * 31 + e.getKey().hashCode();
+            h = h * 31 + e.getValue().hash;
+        }
+        return h;
+    }
+
+    public static String key(String level, String phase) {
+        return level + " " + phase;
+    }
+
+    public double getChance() {
+        return chance;
+    }
+
+    public double getFreezeScale() {
+        return freezeScale;
+    }
+
+    // u is uniform in [0, 1)
+    public RatType pick(double u) {
+        return types[picker.sample(u)];
+    }
+
+    // ------------------------------------------------------------
+    // Loading
+    // ------------------------------------------------------------
+
+    // Tables by key(level, phase). Bad lines are reported and skipped; a
+    // missing file falls back to defaults()
+    public static Map<String, SpawnTable> load(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            System.out.println("Spawn tables not found: " + path);
+            return defaults();
+        }
+
+        Map<String, SpawnTable> tables = new HashMap<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            Section section = null;
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                int hash = line.indexOf('#');
+                if (hash >= 0) line = line.substring(0, hash);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                try {
+                    if (line.startsWith("[")) {
+                        if (section != null) section.addTo(tables);
+                        section = null;  // entries under a bad header are skipped
+                        section = Section.parseHeader(line);
+                    } else if (section == null) {
+                        throw new IllegalArgumentException("entry outside a [level phase] section");
+                    } else {
+                        section.parseEntry(line);
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.out.println("ERROR in " + path + " line " + lineNo + ": " + e.getMessage());
+                }
+            }
+            if (section != null) section.addTo(tables);
+        } catch (Exception e) {
+            System.out.println("ERROR reading spawn tables: " + e.getMessage());
+            return defaults();
+        }
+        return tables;
+    }
+
+    // One [level phase] block while it is being read
+    private static final class Section {
+        final String key;
+        double chance = 0;
+        double freezeScale = 1;
+        final List<RatType> types = new ArrayList<>();
+        final List<Double> weights = new ArrayList<>();
+
+        Section(String key) {
+            this.key = key;
+        }
+
+        static Section parseHeader(String line) {
+            if (!line.endsWith("]")) throw new IllegalArgumentException("unclosed header: " + line);
+            String[] parts = line.substring(1, line.length() - 1).trim().split("\\s+");
+            if (parts.length != 2) throw new IllegalArgumentException("expected [level phase]: " + line);
+            return new Section(key(parts[0], parts[1].toUpperCase(Locale.ROOT)));
+        }
+
+        void parseEntry(String line) {
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) throw new IllegalArgumentException("expected name and value: " + line);
+            double value = Double.parseDouble(parts[1]);
+            if (!(value >= 0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("bad value: " + line);
+            }
+
+            String name = parts[0];
+            if (name.equalsIgnoreCase("chance")) {
+                chance = value;
+            } else if (name.equalsIgnoreCase("freeze")) {
+                freezeScale = value;
+            } else {
+                RatType type;
+                try {
+                    type = RatType.valueOf(name.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("unknown rat type: " + name);
+                }
+                if (type == RatType.BOSS) {
+                    throw new IllegalArgumentException("BOSS can't spawn in holes");
+                }
+                types.add(type);
+                weights.add(value);
+            }
+        }
+
+        void addTo(Map<String, SpawnTable> tables) {
+            double[] w = new double[weights.size()];
+            double sum = 0;
+            for (int i = 0; i < w.length; i++) {
+                w[i] = weights.get(i);
+                sum += w[i];
+            }
+            if (sum <= 0 || chance <= 0) {
+                System.out.println("ERROR in spawn table [" + key + "]: nothing can spawn, skipped");
+                return;
+            }
+            tables.put(key, new SpawnTable(chance, freezeScale,
+                    types.toArray(new RatType[0]), w));
+        }
+    }
+}
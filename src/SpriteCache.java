@@ -0,0 +1,101 @@
+import acm.util.MediaTools;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Shared, pre-scaled sprite images keyed by (path, width, height).
+// Each image is decoded and scaled once; every GImage built from it
+// shares the same pixels, so spawning a rat never touches disk.
+// Safe to fill from AssetManager's worker threads.
+public final class SpriteCache {
+
+    private static final Map<String, BufferedImage> cache = new ConcurrentHashMap<>();
+    private static final Map<String, AlphaMask> masks = new ConcurrentHashMap<>();
+    private static final Set<String> missing = ConcurrentHashMap.newKeySet();  // don't retry failed paths
+
+    private SpriteCache() { }
+
+    // width/height <= 0 keeps the image's natural size
+    public static BufferedImage get(String path, int width, int height) {
+        String key = key(path, width, height);
+        BufferedImage img = cache.get(key);
+        if (img == null) {
+            if (width > 0 && height > 0) {
+                // scale from the cached original instead of decoding again
+                img = scale(get(path, 0, 0), width, height);
+            } else {
+                if (missing.contains(path)) {
+                    throw new IllegalStateException("Sprite not found: " + path);
+                }
+                try {
+                    img = decode(path);
+                } catch (RuntimeException e) {
+                    missing.add(path);
+                    throw e;
+                }
+            }
+            BufferedImage raced = cache.putIfAbsent(key, img);
+            if (raced != null) img = raced;
+        }
+        return img;
+    }
+
+    // Hit mask for the same (path, width, height) image, built on first use
+    // and shared; throws like get() if the sprite can't be loaded
+    public static AlphaMask getMask(String path, int width, int height) {
+        String key = key(path, width, height);
+        AlphaMask mask = masks.get(key);
+        if (mask == null) {
+            mask = AlphaMask.of(get(path, width, height), AlphaMask.DEFAULT_THRESHOLD);
+            AlphaMask raced = masks.putIfAbsent(key, mask);
+            if (raced != null) mask = raced;
+        }
+        return mask;
+    }
+
+    // Non-blocking lookup: the image if it's already decoded, otherwise null
+    public static BufferedImage peek(String path, int width, int height) {
+        return cache.get(key(path, width, height));
+    }
+
+    private static String key(String path, int width, int height) {
+        if (width <= 0 || height <= 0) return path;
+        return path + "@" + width + "x" + height;
+    }
+
+    // Decodes from Media/ first, then falls back to ACM's image search path
+    static BufferedImage decode(String path) {
+        try {
+            File file = new File("Media", path);
+            if (file.exists()) {
+                BufferedImage img = ImageIO.read(file);
+                if (img != null) return img;
+            }
+        } catch (Exception e) {
+            // fall through to the ACM loader
+        }
+        Image img = MediaTools.loadImage(path);  // throws if not found
+        return MediaTools.createBufferedImage(img, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static BufferedImage scale(BufferedImage src, int width, int height) {
+        if (width <= 0 || height <= 0
+                || (src.getWidth() == width && src.getHeight() == height)) {
+            return src;
+        }
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, width, height, null);
+        g.dispose();
+        return out;
+    }
+}
@@ -0,0 +1,125 @@
+// Many free-moving rats stored as parallel primitive arrays (structure of
+// arrays) instead of one object each. Living members are kept packed in
+// [0, size) by swap-removal, so step() is one branch-free pass over plain
+// double arrays that the JIT can unroll and vectorize.
+//
+// Simulation thread only; the renderer draws from copies (copyPositions)
+// and keeps its own GObject proxies.
+public final class Swarm {
+
+    private final double[] x, y, prevX, prevY, vx, vy;
+    private final int[] hp;
+    private int size = 0;
+
+    public Swarm(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        hp = new int[capacity];
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Returns the new member's index, or -1 when full
+    public int add(double px, double py, double velX, double velY, int health) {
+        if (size == x.length) return -1;
+        int i = size++;
+        x[i] = prevX[i] = px;
+        y[i] = prevY[i] = py;
+        vx[i] = velX;
+        vy[i] = velY;
+        hp[i] = health;
+        return i;
+    }
+
+    // Moves every member by dtMs and bounces it off the box edges, the
+    // same way GamePane.moveBoss moves the single boss
+    public void step(double dtMs, double minX, double minY, double maxX, double maxY) {
+        int n = size;
+        System.arraycopy(x, 0, prevX, 0, n);
+        System.arraycopy(y, 0, prevY, 0, n);
+
+        final double[] x = this.x, y = this.y, vx = this.vx, vy = this.vy;
+        for (int i = 0; i < n; i++) {
+            double nx = x[i] + vx[i] * dtMs;
+            double ny = y[i] + vy[i] * dtMs;
+            // selects, not branches (Math.min/max are slower: NaN / -0.0 rules)
+            double cx = nx < minX ? minX : nx > maxX ? maxX : nx;
+            double cy = ny < minY ? minY : ny > maxY ? maxY : ny;
+            vx[i] = cx == nx ? vx[i] : -vx[i];
+            vy[i] = cy == ny ? vy[i] : -vy[i];
+            x[i] = cx;
+            y[i] = cy;
+        }
+    }
+
+    // Topmost (highest index, drawn last) member whose box of the given
+    // half-size around its center holds the point, or -1
+    public int hitAt(double px, double py, double halfW, double halfH) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Math.abs(px - x[i]) < halfW && Math.abs(py - y[i]) < halfH) return i;
+        }
+        return -1;
+    }
+
+    // Takes damage off member i; returns true if that killed (removed) it
+    public boolean damage(int i, int amount) {
+        hp[i] -= amount;
+        if (hp[i] > 0) return false;
+        remove(i);
+        return true;
+    }
+
+    // Swap-remove: the last member moves into slot i
+    public void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        hp[i] = hp[last];
+    }
+
+    public int totalHp() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += hp[i];
+        }
+        return total;
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public int getHp(int i) {
+        return hp[i];
+    }
+
+    // Copies the previous and current positions of the first size() members
+    public void copyPositions(double[] toPrevX, double[] toPrevY, double[] toX, double[] toY) {
+        System.arraycopy(prevX, 0, toPrevX, 0, size);
+        System.arraycopy(prevY, 0, toPrevY, 0, size);
+        System.arraycopy(x, 0, toX, 0, size);
+        System.arraycopy(y, 0, toY, 0, size);
+    }
+}
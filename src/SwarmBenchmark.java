@@ -0,0 +1,115 @@
+import java.util.Random;
+
+// Microbenchmark: how far swarm mode scales. For growing swarm sizes it
+// times one simulation step (Swarm.step), the copy into a render snapshot
+// and a click hit test, next to the same step over one object per rat
+// (the old scalar-fields approach), and shows the step + copy cost as a
+// share of a 60 fps frame (16.7 ms).
+//
+//   java -cp bin:acm.jar SwarmBenchmark
+public class SwarmBenchmark {
+
+    private static final double MIN_X = 120, MIN_Y = 130, MAX_X = 680, MAX_Y = 480;
+    private static final int STEP_MS = 17;
+    private static final double FRAME_NANOS = 1e9 / 60;
+    private static final int ROUNDS = 30;
+
+    private static volatile double sink;  // keeps results alive
+
+    // one object per rat, like GameEngine's bossX/bossY/bossVX/bossVY
+    private static final class Mover {
+        double x, y, vx, vy;
+        int hp;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("   rats   SoA step us   objects step us   copy us   click us   % of frame");
+        for (int n : new int[] {100, 1_000, 10_000, 100_000, 1_000_000}) {
+            run(n);
+        }
+    }
+
+    private static void run(int n) {
+        Random rng = new Random(42);
+        Swarm swarm = new Swarm(n);
+        Mover[] movers = new Mover[n];
+        for (int i = 0; i < n; i++) {
+            double x = MIN_X + rng.nextDouble() * (MAX_X - MIN_X);
+            double y = MIN_Y + rng.nextDouble() * (MAX_Y - MIN_Y);
+            double vx = (rng.nextBoolean() ? 1 : -1) * (0.06 + rng.nextDouble() * 0.12);
+            double vy = (rng.nextBoolean() ? 1 : -1) * (0.06 + rng.nextDouble() * 0.12);
+            swarm.add(x, y, vx, vy, 50);
+
+            Mover m = new Mover();
+            m.x = x;
+            m.y = y;
+            m.vx = vx;
+            m.vy = vy;
+            m.hp = 50;
+            movers[i] = m;
+        }
+        // objects end up scattered on the heap, as they would after play
+        for (int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            Mover t = movers[i];
+            movers[i] = movers[j];
+            movers[j] = t;
+        }
+
+        double[] prevX = new double[n], prevY = new double[n], x = new double[n], y = new double[n];
+        int steps = Math.max(1, 2_000_000 / n);
+
+        long soa = Long.MAX_VALUE, aos = Long.MAX_VALUE, copy = Long.MAX_VALUE, click = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {  // early rounds are warm-up
+            long t0 = System.nanoTime();
+            for (int s = 0; s < steps; s++) {
+                swarm.step(STEP_MS, MIN_X, MIN_Y, MAX_X, MAX_Y);
+            }
+            long t1 = System.nanoTime();
+            for (int s = 0; s < steps; s++) {
+                stepObjects(movers, STEP_MS);
+            }
+            long t2 = System.nanoTime();
+            for (int s = 0; s < steps; s++) {
+                swarm.copyPositions(prevX, prevY, x, y);
+            }
+            long t3 = System.nanoTime();
+            int hits = 0;
+            for (int s = 0; s < steps; s++) {
+                if (swarm.hitAt(MIN_X + (s % 500), MIN_Y + (s % 300), 16, 16) >= 0) hits++;
+            }
+            long t4 = System.nanoTime();
+            sink += x[n / 2] + movers[n / 2].x + hits;
+
+            soa = Math.min(soa, (t1 - t0) / steps);
+            aos = Math.min(aos, (t2 - t1) / steps);
+            copy = Math.min(copy, (t3 - t2) / steps);
+            click = Math.min(click, (t4 - t3) / steps);
+        }
+
+        System.out.printf("%7d   %11.2f   %15.2f   %7.2f   %8.2f   %9.1f%%%n", n,
+                soa / 1000.0, aos / 1000.0, copy / 1000.0, click / 1000.0,
+                100.0 * (soa + copy) / FRAME_NANOS);
+    }
+
+    private static void stepObjects(Mover[] movers, double dtMs) {
+        for (Mover m : movers) {
+            m.x += m.vx * dtMs;
+            m.y += m.vy * dtMs;
+            if (m.x < MIN_X) {
+                m.x = MIN_X;
+                m.vx = -m.vx;
+            } else if (m.x > MAX_X) {
+                m.x = MAX_X;
+                m.vx = -m.vx;
+            }
+            if (m.y < MIN_Y) {
+                m.y = MIN_Y;
+                m.vy = -m.vy;
+            } else if (m.y > MAX_Y) {
+                m.y = MAX_Y;
+                m.vy = -m.vy;
+            }
+        }
+    }
+}
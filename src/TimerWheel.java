@@ -0,0 +1,145 @@
+// Hashed timer wheel keyed on simulation time (ms). Events are scheduled
+// once and fire when advance() reaches their deadline, so the cost of a
+// step depends on the number of events falling in the slots it sweeps,
+// not on how many timers are pending in total.
+//
+// Events are intrusive (each one is its own list node) and meant to be
+// created once and rescheduled, so scheduling never allocates.
+// Not thread-safe: use from the simulation thread only.
+public class TimerWheel {
+
+    public abstract static class Event {
+        private TimerWheel wheel;  // non-null while scheduled
+        private long deadline;
+        private int slot;          // DUE once taken out of the wheel to fire
+        private Event prev, next;
+
+        protected abstract void fire();
+
+        public boolean isScheduled() {
+            return wheel != null;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public void cancel() {
+            if (wheel != null) wheel.unlink(this);
+        }
+    }
+
+    private static final int DUE = -1;
+
+    private final int resolutionMs;
+    private final Event[] slots;
+    private final int mask;
+    private long now = 0;
+
+    // events taken out of the wheel during advance(), fired afterwards in
+    // deadline order; still cancellable until they fire
+    private Event due;
+
+    // slotCount must be a power of two; one turn of the wheel covers
+    // resolutionMs * slotCount, later deadlines just wait extra turns
+    public TimerWheel(int resolutionMs, int slotCount) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("slotCount must be a power of two: " + slotCount);
+        }
+        this.resolutionMs = resolutionMs;
+        this.slots = new Event[slotCount];
+        this.mask = slotCount - 1;
+    }
+
+    public long now() {
+        return now;
+    }
+
+    // (Re)schedules e to fire delayMs from now
+    public void schedule(Event e, long delayMs) {
+        scheduleAt(e, now + Math.max(0, delayMs));
+    }
+
+    // (Re)schedules e for an absolute time; a past deadline fires on the next advance
+    public void scheduleAt(Event e, long deadline) {
+        e.cancel();
+        e.deadline = deadline;
+        e.wheel = this;
+        e.slot = (int) (Math.max(deadline, now) / resolutionMs) & mask;
+        e.prev = null;
+        e.next = slots[e.slot];
+        if (e.next != null) e.next.prev = e;
+        slots[e.slot] = e;
+    }
+
+    // Moves time forward and fires every event that has come due, in
+    // deadline order per slot. Events may reschedule themselves from fire().
+    public void advance(long deltaMs) {
+        long target = now + deltaMs;
+        long firstTick = now / resolutionMs;
+        long lastTick = target / resolutionMs;
+        long ticks = Math.min(lastTick - firstTick + 1, slots.length);
+
+        for (long t = 0; t < ticks; t++) {
+            int slot = (int) ((firstTick + t) & mask);
+            Event e = slots[slot];
+            while (e != null) {
+                Event next = e.next;
+                if (e.deadline <= target) {
+                    unlink(e);
+                    insertDue(e);
+                }
+                e = next;
+            }
+        }
+        now = target;
+
+        while (due != null) {
+            Event e = due;
+            unlink(e);
+            e.fire();
+        }
+    }
+
+    // Cancels everything and restarts the clock at 0
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            while (slots[i] != null) {
+                unlink(slots[i]);
+            }
+        }
+        while (due != null) {
+            unlink(due);
+        }
+        now = 0;
+    }
+
+    private void unlink(Event e) {
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else if (e.slot == DUE) {
+            due = e.next;
+        } else {
+            slots[e.slot] = e.next;
+        }
+        if (e.next != null) e.next.prev = e.prev;
+        e.prev = e.next = null;
+        e.wheel = null;
+    }
+
+    // keeps the due list sorted by deadline (it only holds one step's worth)
+    private void insertDue(Event e) {
+        e.wheel = this;
+        e.slot = DUE;
+        Event p = null;
+        Event n = due;
+        while (n != null && n.deadline <= e.deadline) {
+            p = n;
+            n = n.next;
+        }
+        e.prev = p;
+        e.next = n;
+        if (p != null) p.next = e; else due = e;
+        if (n != null) n.prev = e;
+    }
+}
@@ -1,6 +1,6 @@
 public class TrapRat extends Ratdg {
-    public TrapRat(MainApplication app) {
-        super(app, RatType.TRAP, -25, 1500);
+    public TrapRat() {
+        super(RatType.TRAP, -25, 1500);
         setSpriteFromFile("rat_trap.png", -28, -38, 56, 56);
     }
 }
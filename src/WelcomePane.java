@@ -22,17 +22,20 @@ public class WelcomePane extends GraphicsPane {
 
     @Override
     public void showContent() {
-        addBackgroundImage();
-        addTitle();
-        addButtons();
+        attachScene();
     }
 
     @Override
     public void hideContent() {
-        for (GObject item : contents) {
-            mainScreen.remove(item);
-        }
-        contents.clear();
+        detachScene();
+    }
+
+    // Built once; later visits just re-attach the scene
+    @Override
+    protected void buildScene() {
+        addBackgroundImage();
+        addTitle();
+        addButtons();
     }
 
     // ---------- Background Image ----------
@@ -40,12 +43,12 @@ public class WelcomePane extends GraphicsPane {
         double w = mainScreen.getWidth();
         double h = mainScreen.getHeight();
 
-        backgroundImg = new GImage("eiffel_tower_background.png");
+        backgroundImg = mainScreen.getAssets().createImage("eiffel_tower_background.png");
+        if (backgroundImg == null) return;
         backgroundImg.setSize(w, h);
         backgroundImg.setLocation(0, 0);
 
-        contents.add(backgroundImg);
-        mainScreen.add(backgroundImg);
+        addToScene(backgroundImg);
     }
 
     // ---------- Title ----------
@@ -57,8 +60,7 @@ public class WelcomePane extends GraphicsPane {
         title.setColor(new Color(40, 40, 40));
         title.setLocation((w - title.getWidth()) / 2.0, 150);
 
-        contents.add(title);
-        mainScreen.add(title);
+        addToScene(title);
     }
 
     // ---------- Buttons ----------
@@ -70,59 +72,57 @@ public class WelcomePane extends GraphicsPane {
         double gap    = 52;
 
         // START
-        startButtonImg = new GImage("StartButton.png");
-        startButtonImg.scale(0.15);
+        startButtonImg = buttonImage("StartButton.png", 0.15);
         startButtonImg.setLocation(
                 (w - startButtonImg.getWidth()) / 2.0,
                 startY
         );
-        contents.add(startButtonImg);
-        mainScreen.add(startButtonImg);
+        addToScene(startButtonImg);
 
         // LEADERBOARDS
-        leaderboardsButtonImg = new GImage("LeaderboardsButton.png");
-        leaderboardsButtonImg.scale(0.10);
+        leaderboardsButtonImg = buttonImage("LeaderboardsButton.png", 0.10);
         leaderboardsButtonImg.setLocation(
                 (w - leaderboardsButtonImg.getWidth()) / 2.0,
                 startY + gap
         );
-        contents.add(leaderboardsButtonImg);
-        mainScreen.add(leaderboardsButtonImg);
+        addToScene(leaderboardsButtonImg);
 
         // SETTINGS
-        settingsButtonImg = new GImage("SettingsButton.png");
-        settingsButtonImg.scale(0.10);
+        settingsButtonImg = buttonImage("SettingsButton.png", 0.10);
         settingsButtonImg.setLocation(
                 (w - settingsButtonImg.getWidth()) / 2.0,
                 startY + 2 * gap
         );
-        contents.add(settingsButtonImg);
-        mainScreen.add(settingsButtonImg);
+        addToScene(settingsButtonImg);
 
         // EXIT
-        exitButtonImg = new GImage("ExitButton.png");
-        exitButtonImg.scale(0.10);
+        exitButtonImg = buttonImage("ExitButton.png", 0.10);
         exitButtonImg.setLocation(
                 (w - exitButtonImg.getWidth()) / 2.0,
                 startY + 3 * gap
         );
-        contents.add(exitButtonImg);
-        mainScreen.add(exitButtonImg);
+        addToScene(exitButtonImg);
 
         // INFO
-        infoButtonImg = new GImage("info_button.png");
-        infoButtonImg.scale(0.085);
+        infoButtonImg = buttonImage("info_button.png", 0.085);
         infoButtonImg.setLocation(
                 (w - infoButtonImg.getWidth()) / 2.0,
                 startY + 4 * gap
         );
-        contents.add(infoButtonImg);
-        mainScreen.add(infoButtonImg);
+        addToScene(infoButtonImg);
+    }
+
+    // Preloaded button image scaled down, or a plain box if it's missing
+    private GImage buttonImage(String name, double scale) {
+        GImage img = mainScreen.getAssets().createImage(name);
+        if (img == null) return AssetManager.placeholder(160, 40);
+        img.scale(scale);
+        return img;
     }
 
     @Override
     public void mouseClicked(MouseEvent e) {
-        GObject clicked = mainScreen.getElementAtLocation(e.getX(), e.getY());
+        GObject clicked = getElementAt(e.getX(), e.getY());
         if (clicked == null) return;
 
         if (clicked == startButtonImg) {